@@ -1,6 +1,7 @@
 package com.wipro.ecom.order_management.config;
 
 import com.wipro.ecom.order_management.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,21 +26,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            // Verified once; every claim below is read from the same parsed result
+            claims = jwtUtil.extractAllClaims(authorizationHeader.substring(7));
+            username = claims.getSubject();
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String role = jwtUtil.extractClaim(jwt, claims -> claims.get("role", String.class));
+            if (jwtUtil.validateToken(claims)) {
+                String role = claims.get("role", String.class);
                 
                 // --- CHANGE 1: ADDED DEBUG LINE FOR THE ROLE ---
                 System.out.println("======> Role Extracted from Token: [" + role + "] <======");
 
-                Integer userId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Integer.class));
+                Integer userId = claims.get("userId", Integer.class);
                 SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
 
                 // --- CHANGE 2: ADDED DEBUG LINE FOR THE AUTHORITY ---
@@ -0,0 +1,47 @@
+package com.wipro.ecom.order_management.config;
+
+import com.wipro.ecom.order_management.dto.ProductChangeEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String PRODUCT_CHANGE_FACTORY = "productChangeFactory";
+
+    /**
+     * Listener factory for product-changes. Every instance assigns itself all partitions and reads them
+     * from the beginning on each start, so a restart rebuilds the price cache from the compacted topic.
+     * There is no consumer group and nothing is ever committed, so restarts leave no groups behind.
+     * Values are plain JSON without type headers.
+     */
+    @Bean(name = PRODUCT_CHANGE_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, ProductChangeEvent> productChangeFactory(
+            ConsumerFactory<Object, Object> bootConsumerFactory) {
+        Map<String, Object> config = new HashMap<>(bootConsumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+
+        JsonDeserializer<ProductChangeEvent> json = new JsonDeserializer<>(ProductChangeEvent.class, false);
+        json.ignoreTypeHeaders();
+        ConcurrentKafkaListenerContainerFactory<String, ProductChangeEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(json)));
+        // The listener never acknowledges, so with MANUAL acks no offset is committed
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+        return factory;
+    }
+}
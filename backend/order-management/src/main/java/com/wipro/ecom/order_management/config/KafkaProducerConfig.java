@@ -0,0 +1,24 @@
+package com.wipro.ecom.order_management.config;
+
+import com.wipro.ecom.order_management.dto.OrderEvent;
+import com.wipro.ecom.order_management.util.OrderEventSerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    /**
+     * Template for order-events. It reuses the Boot-configured producer settings but always writes
+     * the key (the product id) as a string and the value in the compact binary encoding.
+     */
+    @Bean
+    public KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate(ProducerFactory<?, ?> bootProducerFactory) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(bootProducerFactory.getConfigurationProperties(),
+                new StringSerializer(), new OrderEventSerializer()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.wipro.ecom.order_management.config;
+
+import com.wipro.ecom.order_management.service.KafkaProducerService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // The partition count caps how many consumers can apply stock changes in parallel
+    @Value("${order-events.partitions:12}")
+    private int partitions;
+
+    @Value("${order-events.replicas:1}")
+    private short replicas;
+
+    @Bean
+    public NewTopic orderEventsTopic() {
+        return TopicBuilder.name(KafkaProducerService.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -58,10 +58,14 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
         
         // Define the allowed HTTP methods
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         // Define the allowed headers
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "Idempotency-Key"));
+
+        // Let the frontend read the keyset pagination cursor on order history responses,
+        // and see when a response was replayed for a repeated Idempotency-Key
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "Idempotent-Replayed"));
         
         // Allow credentials (important for cookies, auth headers)
         configuration.setAllowCredentials(true);
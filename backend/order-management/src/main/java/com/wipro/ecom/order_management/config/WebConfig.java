@@ -10,8 +10,9 @@ public class WebConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**") // Apply this rule to all endpoints
                 .allowedOrigins("http://localhost:4200") // Allow your Angular app's origin
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Specify allowed methods
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Specify allowed methods
                 .allowedHeaders("*") // Allow all headers
+                .exposedHeaders("X-Next-Cursor", "Idempotent-Replayed") // Pagination cursor, idempotent replays
                 .allowCredentials(true); // Allow sending of cookies and credentials
     }
 }
@@ -1,8 +1,10 @@
 package com.wipro.ecom.order_management.controller;
 
+import com.wipro.ecom.order_management.dto.CartOperation;
 import com.wipro.ecom.order_management.entity.Cart;
 import com.wipro.ecom.order_management.entity.CartItem;
 import com.wipro.ecom.order_management.service.CartService;
+import com.wipro.ecom.order_management.util.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -11,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 
 @RestController
 @RequestMapping("/cart")
@@ -20,6 +23,9 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
     @Operation(summary = "Get the user's shopping cart by their user ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved cart")
     @GetMapping("/{userId}")
@@ -28,12 +34,26 @@ public class CartController {
         return ResponseEntity.ok(cartService.getCartByUserId(userId));
     }
 
-    @Operation(summary = "Add an item to the shopping cart")
-    @ApiResponse(responseCode = "200", description = "Item successfully added to cart")
+    @Operation(summary = "Add an item to the shopping cart",
+               description = "A retry sent with the same Idempotency-Key header gets the original response instead of adding the item again.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Item successfully added to cart"),
+            @ApiResponse(responseCode = "400", description = "Unknown product"),
+            @ApiResponse(responseCode = "409", description = "A request with this Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used with a different item")
+    })
     @PostMapping("/{userId}/add")
     @PreAuthorize("#userId == authentication.principal")
-    public ResponseEntity<Cart> addProductToCart(@PathVariable Integer userId, @RequestBody CartItem item) {
-        return ResponseEntity.ok(cartService.addProductToCart(userId, item));
+    public ResponseEntity<Cart> addProductToCart(@PathVariable Integer userId, @RequestBody CartItem item,
+                                                 @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "cart-add", userId, item,
+                () -> {
+                    try {
+                        return ResponseEntity.ok(cartService.addProductToCart(userId, item));
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                });
     }
 
     @Operation(summary = "Update the quantity of a specific item in the cart")
@@ -54,4 +74,20 @@ public class CartController {
     public ResponseEntity<Cart> deleteProductFromCart(@PathVariable Integer userId, @PathVariable Integer productId) {
         return ResponseEntity.ok(cartService.removeProductFromCart(userId, productId));
     }
+
+    @Operation(summary = "Apply several cart changes at once",
+               description = "Accepts a list of add / set / remove operations and applies them all or none, returning the final cart.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All operations applied"),
+            @ApiResponse(responseCode = "400", description = "An operation was invalid; the cart was not changed")
+    })
+    @PatchMapping("/{userId}")
+    @PreAuthorize("#userId == authentication.principal")
+    public ResponseEntity<Cart> applyOperations(@PathVariable Integer userId, @RequestBody List<CartOperation> operations) {
+        try {
+            return ResponseEntity.ok(cartService.applyOperations(userId, operations));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -1,16 +1,26 @@
 package com.wipro.ecom.order_management.controller;
 
+import com.wipro.ecom.order_management.dto.OrderPage;
 import com.wipro.ecom.order_management.entity.Order;
+import com.wipro.ecom.order_management.service.OrderExportService;
 import com.wipro.ecom.order_management.service.OrderService;
+import com.wipro.ecom.order_management.util.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,33 +28,79 @@ import java.util.List;
 @Tag(name = "Order Management", description = "APIs for creating, viewing, and cancelling orders")
 public class OrderController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private OrderService orderService;
 
-    @Operation(summary = "Create a new order from cart items")
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    // Only the export runs this long; other async requests keep the container's default timeout
+    @Value("${order.export.timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
+    @Operation(summary = "Create a new order from cart items",
+               description = "A retry sent with the same Idempotency-Key header gets the original response instead of placing a second order.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Order created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid order data supplied")
+            @ApiResponse(responseCode = "400", description = "Invalid order data supplied (no items, non-positive quantity or unknown product)"),
+            @ApiResponse(responseCode = "409", description = "A request with this Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used with a different order")
     })
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<Order> createOrder(@RequestBody Order order, Authentication authentication) {
+    public ResponseEntity<Order> createOrder(@RequestBody Order order, Authentication authentication,
+                                             @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
  
       Integer customerId = (Integer) authentication.getPrincipal();
       
-    
-      Order createdOrder = orderService.createOrder(order, customerId); 
-      
-      return ResponseEntity.ok(createdOrder);
+      // The body is fingerprinted before createOrder fills in prices, ids and dates
+      return idempotencyStore.execute(idempotencyKey, "order-create", customerId, order, () -> {
+          try {
+              // Prices and the total are computed server-side; any sent by the client are ignored
+              Order createdOrder = orderService.createOrder(order, customerId);
+              return ResponseEntity.ok(createdOrder);
+          } catch (IllegalArgumentException e) {
+              return ResponseEntity.badRequest().build();
+          }
+      });
   }
 
-    @Operation(summary = "Get a list of all orders for a specific user")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of orders")
+    @Operation(summary = "Place an order from the current contents of the user's cart",
+               description = "Creates the order, computes its total, empties the cart and publishes one ORDER_PLACED event in a single transaction.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order created successfully"),
+            @ApiResponse(responseCode = "400", description = "Cart is empty or holds a product that no longer exists")
+    })
+    @PostMapping("/checkout")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<Order> checkout(Authentication authentication) {
+        Integer customerId = (Integer) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(orderService.checkout(customerId));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Get a page of a user's orders, newest first",
+               description = "When more orders exist the X-Next-Cursor response header carries the cursor for the next page. "
+                       + "With summary=true only order headers are returned, without items.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of orders"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping("/user/{userId}")
     @PreAuthorize("#userId == authentication.principal or hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getOrdersByUser(@PathVariable Integer userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<?>> getOrdersByUser(@PathVariable Integer userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(defaultValue = "false") boolean summary) {
+        return orderPage(userId, cursor, size, summary);
     }
 
     @Operation(summary = "Cancel an existing order")
@@ -61,12 +117,60 @@ public class OrderController {
         return ResponseEntity.ok(cancelledOrder);
     }
 
-    @Operation(summary = "Get a list of all orders (Admin only)")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of all orders")
+    @Operation(summary = "Get a page of all orders, newest first (Admin only)",
+               description = "Paged the same way as /order/user/{userId}.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of orders"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping// <-- FIXED: Was '/', now "/"
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<?>> getAllOrders(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(defaultValue = "false") boolean summary) {
+        return orderPage(null, cursor, size, summary);
+    }
+
+    @Operation(summary = "Export all orders with their items (Admin only)",
+               description = "Streams NDJSON (one order per line, default) or CSV (one item per line). "
+                       + "from is inclusive and to is exclusive; both are optional ISO dates.")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public WebAsyncTask<Void> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = OrderExportService.NDJSON) String format,
+            HttpServletResponse response) {
+        if (!OrderExportService.NDJSON.equals(format) && !OrderExportService.CSV.equals(format)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        LocalDateTime fromTime = from == null ? null : from.atStartOfDay();
+        LocalDateTime toTime = to == null ? null : to.atStartOfDay();
+        response.setContentType(OrderExportService.CSV.equals(format) ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=\"orders." + format + "\"");
+        // Written on an async thread like a StreamingResponseBody, but with the export's own timeout
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            orderExportService.export(fromTime, toTime, format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    private ResponseEntity<List<?>> orderPage(Integer userId, String cursor, Integer size, boolean summary) {
+        OrderPage<?> page;
+        try {
+            page = summary
+                    ? orderService.getOrderSummaryPage(userId, cursor, size)
+                    : orderService.getOrderPage(userId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
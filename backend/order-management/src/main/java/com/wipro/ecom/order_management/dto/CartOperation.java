@@ -0,0 +1,14 @@
+package com.wipro.ecom.order_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartOperation {
+    private String op; // "add", "set" or "remove"
+    private Integer productId;
+    private Integer quantity; // amount to add for "add"; new quantity for "set" (0 or less removes the item)
+}
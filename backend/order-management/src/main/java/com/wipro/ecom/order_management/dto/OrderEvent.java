@@ -9,7 +9,10 @@ import java.util.List;
 @AllArgsConstructor // <-- ADD THIS ANNOTATION
 @NoArgsConstructor
 public class OrderEvent {
-    private String eventType;
+    // Unique per event and kept across re-sends, so consumers can drop redeliveries
+    private String eventId;
+    private Integer orderId;
+    private OrderEventType eventType;
     private List<OrderItemDetail> items;
 
     @Data
@@ -17,6 +20,6 @@ public class OrderEvent {
     @NoArgsConstructor
     public static class OrderItemDetail {
         private Integer productId;
-        private Integer quantity;
+        private int quantity;
     }
 }
@@ -0,0 +1,21 @@
+package com.wipro.ecom.order_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// One order/item pair as read by the export query; item fields are null for an order without items
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderExportRow {
+    private Integer orderId;
+    private Integer userId;
+    private Double totalAmount;
+    private String orderStatus;
+    private LocalDateTime orderDate;
+    private Integer productId;
+    private Integer quantity;
+    private Double price;
+}
@@ -0,0 +1,12 @@
+package com.wipro.ecom.order_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPage<T> {
+    private List<T> items;
+    private String nextCursor; // null when this is the last page
+}
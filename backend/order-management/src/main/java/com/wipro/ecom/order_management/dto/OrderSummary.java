@@ -0,0 +1,18 @@
+package com.wipro.ecom.order_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Order header without its items, read straight from the orders table
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummary {
+    private Integer orderId;
+    private Integer userId;
+    private Double totalAmount;
+    private String orderStatus;
+    private LocalDateTime orderDate;
+}
@@ -0,0 +1,19 @@
+package com.wipro.ecom.order_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Mirror of product-management's product-changes event
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductChangeEvent {
+    private String changeType; // "UPSERTED" or "DELETED"
+    private Integer productId;
+    private String prodName;
+    private Double price;
+    private long changedAt;
+}
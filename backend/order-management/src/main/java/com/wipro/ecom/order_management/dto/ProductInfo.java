@@ -0,0 +1,18 @@
+package com.wipro.ecom.order_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The fields of a product-management Product that order-management needs
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductInfo {
+    private Integer id;
+    private String prodName;
+    private double price;
+    private int availableQty;
+}
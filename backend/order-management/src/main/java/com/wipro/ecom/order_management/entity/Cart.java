@@ -14,7 +14,8 @@ import java.util.List;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_id")
+    @SequenceGenerator(name = "carts_id", sequenceName = "carts_seq", allocationSize = 50)
     private Integer id;
 
     @Column(unique = true, nullable = false)
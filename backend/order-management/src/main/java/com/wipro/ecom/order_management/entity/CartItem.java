@@ -1,6 +1,7 @@
 package com.wipro.ecom.order_management.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -13,10 +14,13 @@ import lombok.Setter;
 @Table(name = "cart_items")
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_id")
+    @SequenceGenerator(name = "cart_items_id", sequenceName = "cart_items_seq", allocationSize = 50)
     private Integer id;
     private Integer productId;
     private int quantity;
+    // Filled in by the server from the product price; a price sent by the client is ignored
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private double price;
     private LocalDateTime dateAdded; // Includes the timestamp
 
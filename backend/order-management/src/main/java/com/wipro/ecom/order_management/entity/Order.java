@@ -11,17 +11,23 @@ import lombok.Setter;
 @Setter // <-- ADD THIS
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset order for order history: newest first, order id as tie-breaker
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date, order_id"),
+        @Index(name = "idx_orders_date", columnList = "order_date, order_id")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+    @SequenceGenerator(name = "orders_id", sequenceName = "orders_seq", allocationSize = 50)
     private Integer orderId;
     private Integer userId;
     private Double totalAmount;
     private String orderStatus;
     private LocalDateTime orderDate;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Loaded on demand; paged history fetches the items of a whole page in one query
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", referencedColumnName = "orderId")
     private List<OrderItem> items;
 }
@@ -0,0 +1,34 @@
+package com.wipro.ecom.order_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be published. Rows are written in the same transaction as the order
+ * they describe and deleted by {@code OutboxService} once Kafka acknowledges them. While a relay
+ * is publishing a row, {@code claimedUntil} keeps other relays away from it; if that relay dies the
+ * claim simply runs out and the row is sent again.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "order_outbox", indexes = {
+        // The relay's scan order
+        @Index(name = "idx_order_outbox_created", columnList = "created_at, id"),
+        // "Is there an older event for this order?"
+        @Index(name = "idx_order_outbox_order_created", columnList = "order_id, created_at, id")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_id")
+    @SequenceGenerator(name = "order_outbox_id", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+    private Integer orderId;
+    private String eventType;
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    private LocalDateTime createdAt;
+    private LocalDateTime claimedUntil;
+}
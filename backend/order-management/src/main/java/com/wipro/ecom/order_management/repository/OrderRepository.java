@@ -1,11 +1,65 @@
 package com.wipro.ecom.order_management.repository;
 
+import com.wipro.ecom.order_management.dto.OrderExportRow;
+import com.wipro.ecom.order_management.dto.OrderSummary;
 import com.wipro.ecom.order_management.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
     List<Order> findByUserId(Integer userId);
+
+    // Keyset pages over (orderDate DESC, orderId DESC). A null userId means all users;
+    // a null afterDate means the first page. The Pageable only carries the page size.
+
+    @Query("SELECT o.orderId FROM Order o WHERE (:userId IS NULL OR o.userId = :userId)"
+            + " AND (:afterDate IS NULL OR o.orderDate < :afterDate"
+            + " OR (o.orderDate = :afterDate AND o.orderId < :afterId))"
+            + " ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Integer> findPageIds(@Param("userId") Integer userId,
+                              @Param("afterDate") LocalDateTime afterDate,
+                              @Param("afterId") Integer afterId,
+                              Pageable pageable);
+
+    @Query("SELECT new com.wipro.ecom.order_management.dto.OrderSummary("
+            + "o.orderId, o.userId, o.totalAmount, o.orderStatus, o.orderDate)"
+            + " FROM Order o WHERE (:userId IS NULL OR o.userId = :userId)"
+            + " AND (:afterDate IS NULL OR o.orderDate < :afterDate"
+            + " OR (o.orderDate = :afterDate AND o.orderId < :afterId))"
+            + " ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<OrderSummary> findSummaryPage(@Param("userId") Integer userId,
+                                       @Param("afterDate") LocalDateTime afterDate,
+                                       @Param("afterId") Integer afterId,
+                                       Pageable pageable);
+
+    // Loads a page of orders together with all of their items in a single query
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :ids ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findWithItemsByOrderIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Forward-only read for exports. Rows are scalar projections, so nothing accumulates in the
+    // persistence context; a fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream rows
+    // one at a time instead of buffering the whole result. The stream must be closed by the caller.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.wipro.ecom.order_management.dto.OrderExportRow("
+            + "o.orderId, o.userId, o.totalAmount, o.orderStatus, o.orderDate, i.productId, i.quantity, i.price)"
+            + " FROM Order o LEFT JOIN o.items i"
+            + " WHERE (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to)"
+            + " ORDER BY o.orderDate, o.orderId")
+    Stream<OrderExportRow> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
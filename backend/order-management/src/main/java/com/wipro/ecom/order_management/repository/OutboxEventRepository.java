@@ -0,0 +1,31 @@
+package com.wipro.ecom.order_management.repository;
+
+import com.wipro.ecom.order_management.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The oldest unclaimed (or lease-expired) event of each order, oldest first. An order's next event
+    // only becomes eligible once the one before it has been acknowledged and deleted, so at most one
+    // event per order is ever in flight. SKIP LOCKED lets several relay instances claim batches at the
+    // same time; the subquery is a plain read and takes no locks.
+    // Pooled ids are handed out in blocks per instance, so creation time decides publish order.
+    @Query(value = "SELECT * FROM order_outbox o"
+            + " WHERE (o.claimed_until IS NULL OR o.claimed_until < :now)"
+            + " AND NOT EXISTS (SELECT 1 FROM order_outbox p WHERE p.order_id = o.order_id"
+            + " AND (p.created_at < o.created_at OR (p.created_at = o.created_at AND p.id < o.id)))"
+            + " ORDER BY o.created_at, o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+}
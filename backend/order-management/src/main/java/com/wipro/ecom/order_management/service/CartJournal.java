@@ -0,0 +1,115 @@
+package com.wipro.ecom.order_management.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local log of cart mutations that have not been written to the database yet.
+ * Each record carries the absolute state of a cart line, so replaying the log on top of the
+ * database is idempotent. Files are rotated at the start of every flush cycle and deleted once
+ * that cycle has committed; whatever is still on disk at startup is replayed by {@link CartStore}.
+ */
+@Component
+public class CartJournal {
+
+    private static final String PREFIX = "cart-journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private BufferedWriter writer;
+    private Path currentFile;
+    private boolean currentEmpty;
+
+    public CartJournal(@Value("${cart.journal.dir:./cart-journal}") String directory) throws IOException {
+        this.directory = Paths.get(directory);
+        Files.createDirectories(this.directory);
+        openNewFile();
+    }
+
+    public synchronized void append(String record) {
+        try {
+            writer.write(record);
+            currentEmpty = false;
+            writer.newLine();
+            // Hand the record to the OS straight away so it survives a JVM crash
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Could not append to cart journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seals the current file and starts a new one. Returns every sealed file, oldest first;
+     * the caller deletes them once the changes they describe are committed.
+     */
+    public synchronized List<Path> rotate() {
+        if (currentEmpty) {
+            return sealedFiles();
+        }
+        try {
+            writer.close();
+            openNewFile();
+        } catch (IOException e) {
+            System.err.println("Could not rotate cart journal: " + e.getMessage());
+        }
+        return sealedFiles();
+    }
+
+    public synchronized List<String> readSealed() {
+        List<String> records = new ArrayList<>();
+        for (Path file : sealedFiles()) {
+            try {
+                records.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Could not read cart journal " + file + ": " + e.getMessage());
+            }
+        }
+        return records;
+    }
+
+    public void delete(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete cart journal " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void openNewFile() throws IOException {
+        currentFile = directory.resolve(PREFIX + System.currentTimeMillis() + "-" + System.nanoTime() + SUFFIX);
+        writer = Files.newBufferedWriter(currentFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentEmpty = true;
+    }
+
+    private List<Path> sealedFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                    .filter(file -> !file.equals(currentFile))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            System.err.println("Could not list cart journal: " + e.getMessage());
+            return List.of();
+        }
+    }
+}
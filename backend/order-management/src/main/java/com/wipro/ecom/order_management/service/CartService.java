@@ -1,66 +1,51 @@
 package com.wipro.ecom.order_management.service;
 
+import com.wipro.ecom.order_management.dto.CartOperation;
 import com.wipro.ecom.order_management.entity.Cart;
 import com.wipro.ecom.order_management.entity.CartItem;
-import com.wipro.ecom.order_management.repository.CartRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Map;
 
+// Cart reads and writes are served by the in-memory CartStore, which writes them to the database in the background
 @Service
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
+
+    @Autowired
+    private ProductPriceCache productPriceCache;
 
     public Cart getCartByUserId(Integer userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> createCartForUser(userId));
+        return cartStore.getCart(userId);
     }
 
-    private Cart createCartForUser(Integer userId) {
-        Cart newCart = new Cart();
-        newCart.setUserId(userId);
-        return cartRepository.save(newCart);
-    }
-    
-    @Transactional
+    // The line price shown in the cart comes from the product price cache, never from the client
     public Cart addProductToCart(Integer userId, CartItem newItem) {
-        Cart cart = getCartByUserId(userId);
-        
-        // Check if item already exists in cart
-        cart.getItems().stream()
-            .filter(item -> item.getProductId().equals(newItem.getProductId()))
-            .findFirst()
-            .ifPresentOrElse(
-                // If present, update quantity
-                item -> item.setQuantity(item.getQuantity() + newItem.getQuantity()),
-                // If not present, add new item
-                () -> {
-                    newItem.setCart(cart);
-                    cart.getItems().add(newItem);
-                }
-            );
-
-        return cartRepository.save(cart);
+        Double price = productPriceCache.getPrices(List.of(newItem.getProductId())).get(newItem.getProductId());
+        if (price == null) {
+            throw new IllegalArgumentException("Unknown product id: " + newItem.getProductId());
+        }
+        return cartStore.addItem(userId, newItem.getProductId(), newItem.getQuantity(), price);
     }
-    
-    @Transactional
+
     public Cart updateCartItemQuantity(Integer userId, Integer productId, int quantity) {
-        Cart cart = getCartByUserId(userId);
-        CartItem itemToUpdate = cart.getItems().stream()
-            .filter(item -> item.getProductId().equals(productId))
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Item not found in cart"));
-        
-        itemToUpdate.setQuantity(quantity);
-        return cartRepository.save(cart);
+        return cartStore.setQuantity(userId, productId, quantity);
     }
-    
-    @Transactional
+
     public Cart removeProductFromCart(Integer userId, Integer productId) {
-        Cart cart = getCartByUserId(userId);
-        cart.getItems().removeIf(item -> item.getProductId().equals(productId));
-        return cartRepository.save(cart);
+        return cartStore.removeItem(userId, productId);
+    }
+
+    // All operations take effect together or not at all
+    public Cart applyOperations(Integer userId, List<CartOperation> operations) {
+        List<Integer> added = operations.stream()
+                .filter(operation -> "add".equals(operation.getOp()) && operation.getProductId() != null)
+                .map(CartOperation::getProductId)
+                .toList();
+        Map<Integer, Double> prices = added.isEmpty() ? Map.of() : productPriceCache.getPrices(added);
+        return cartStore.apply(userId, operations, prices);
     }
 }
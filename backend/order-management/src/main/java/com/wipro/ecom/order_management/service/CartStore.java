@@ -0,0 +1,523 @@
+package com.wipro.ecom.order_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.wipro.ecom.order_management.dto.CartOperation;
+import com.wipro.ecom.order_management.entity.Cart;
+import com.wipro.ecom.order_management.entity.CartItem;
+import com.wipro.ecom.order_management.repository.CartRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Write-behind store for active carts.
+ *
+ * Carts are kept in memory keyed by userId, with their lines keyed by productId, so every cart
+ * mutation is a map operation. Mutations are journaled by {@link CartJournal} and written to
+ * carts/cart_items by a background flush that coalesces everything changed since the previous run.
+ *
+ * Every database write of a cart happens while holding that cart's monitor and its carts row lock,
+ * so writes for the same cart reach the database in the order they were made. Checkout goes through
+ * {@link #checkout(Integer, Function)}, which flushes the cart before the order is built.
+ *
+ * A dirty cart whose write fails on eviction is kept in {@code unsaved} until a flush writes it, and
+ * is picked up again if the user comes back first; its journal files are kept until then.
+ *
+ * The store assumes a user's cart requests are served by one instance at a time.
+ */
+@Component
+public class CartStore {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartJournal journal;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cart.store.max-size:50000}")
+    private long maxSize;
+
+    @Value("${cart.store.idle-ttl:30m}")
+    private Duration idleTtl;
+
+    @Value("${cart.flush.batch-size:200}")
+    private int flushBatchSize;
+
+    private Cache<Integer, CartState> carts;
+    private TransactionTemplate flushTransaction;
+    private TransactionTemplate newTransaction;
+    // Evicted carts whose changes could not be written yet
+    private final Map<Integer, CartState> unsaved = new ConcurrentHashMap<>();
+    private final AtomicLong evictionWriteFailures = new AtomicLong();
+
+    /** A cart line as held in memory. */
+    public static class CartLine {
+        private Integer itemId;
+        private final Integer productId;
+        private int quantity;
+        private double price;
+        private LocalDateTime dateAdded;
+
+        CartLine(Integer itemId, Integer productId, int quantity, double price, LocalDateTime dateAdded) {
+            this.itemId = itemId;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.price = price;
+            this.dateAdded = dateAdded;
+        }
+
+        public Integer getProductId() {
+            return productId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        CartLine copy() {
+            return new CartLine(itemId, productId, quantity, price, dateAdded);
+        }
+    }
+
+    private static class CartState {
+        final Integer userId;
+        Integer cartId;
+        final Map<Integer, CartLine> lines = new LinkedHashMap<>();
+        long version;
+        long persistedVersion;
+        boolean evicted;
+
+        CartState(Integer userId) {
+            this.userId = userId;
+        }
+
+        boolean isDirty() {
+            return version != persistedVersion;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtl)
+                // Runs synchronously before the entry is dropped, so a dirty cart is never lost to eviction.
+                // Its own transaction, since the evicting thread may be in the middle of someone else's.
+                .evictionListener((Integer userId, CartState state, RemovalCause cause) -> {
+                    if (state != null) {
+                        synchronized (state) {
+                            state.evicted = true;
+                            if (state.isDirty()) {
+                                try {
+                                    newTransaction.executeWithoutResult(status -> persistLocked(state));
+                                    state.persistedVersion = state.version;
+                                } catch (RuntimeException e) {
+                                    // Caffeine would swallow this and drop the cart: hold on to it for the next flush
+                                    unsaved.put(userId, state);
+                                    evictionWriteFailures.incrementAndGet();
+                                    System.err.println("Could not write evicted cart of user " + userId + ", will retry: " + e.getMessage());
+                                }
+                            }
+                        }
+                    }
+                })
+                .build();
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Before the scheduler's first flush and before any cart request: either could otherwise delete
+        // the journal unread or have its changes overwritten by the replay
+        recover();
+    }
+
+    public Cart getCart(Integer userId) {
+        return read(userId, this::toCart);
+    }
+
+    public Cart addItem(Integer userId, Integer productId, int quantity, double price) {
+        return mutate(userId, state -> {
+            CartLine line = state.lines.get(productId);
+            if (line == null) {
+                line = new CartLine(null, productId, quantity, price, LocalDateTime.now());
+                state.lines.put(productId, line);
+            } else {
+                line.quantity += quantity;
+            }
+            journalSet(state.userId, line);
+        });
+    }
+
+    public Cart setQuantity(Integer userId, Integer productId, int quantity) {
+        return mutate(userId, state -> {
+            CartLine line = state.lines.get(productId);
+            if (line == null) {
+                throw new RuntimeException("Item not found in cart");
+            }
+            line.quantity = quantity;
+            journalSet(state.userId, line);
+        });
+    }
+
+    public Cart removeItem(Integer userId, Integer productId) {
+        return mutate(userId, state -> {
+            if (state.lines.remove(productId) != null) {
+                journal.append("R," + state.userId + "," + productId);
+            }
+        });
+    }
+
+    /**
+     * Applies a list of operations as one change: they are validated and applied to a copy of the
+     * cart, and only if every operation succeeds does the copy replace the cart. Throws
+     * IllegalArgumentException and leaves the cart untouched otherwise. {@code prices} holds the
+     * current price of every product an "add" may create a line for.
+     */
+    public Cart apply(Integer userId, List<CartOperation> operations, Map<Integer, Double> prices) {
+        return mutate(userId, state -> {
+            Map<Integer, CartLine> working = new LinkedHashMap<>();
+            state.lines.forEach((productId, line) -> working.put(productId, line.copy()));
+
+            for (CartOperation operation : operations) {
+                Integer productId = operation.getProductId();
+                if (productId == null || operation.getOp() == null) {
+                    throw new IllegalArgumentException("Each operation needs an op and a productId");
+                }
+                int quantity = operation.getQuantity() == null ? 0 : operation.getQuantity();
+                switch (operation.getOp()) {
+                    case "add" -> {
+                        if (quantity <= 0) {
+                            throw new IllegalArgumentException("add needs a positive quantity for product " + productId);
+                        }
+                        CartLine line = working.get(productId);
+                        if (line == null) {
+                            Double price = prices.get(productId);
+                            if (price == null) {
+                                throw new IllegalArgumentException("Unknown product id: " + productId);
+                            }
+                            working.put(productId, new CartLine(null, productId, quantity, price, LocalDateTime.now()));
+                        } else {
+                            line.quantity += quantity;
+                        }
+                    }
+                    case "set" -> {
+                        CartLine line = working.get(productId);
+                        if (line == null) {
+                            throw new IllegalArgumentException("Item not found in cart: " + productId);
+                        }
+                        if (quantity <= 0) {
+                            working.remove(productId);
+                        } else {
+                            line.quantity = quantity;
+                        }
+                    }
+                    case "remove" -> working.remove(productId);
+                    default -> throw new IllegalArgumentException("Unknown cart operation: " + operation.getOp());
+                }
+            }
+
+            state.lines.keySet().stream()
+                    .filter(productId -> !working.containsKey(productId))
+                    .forEach(productId -> journal.append("R," + state.userId + "," + productId));
+            working.values().forEach(line -> journalSet(state.userId, line));
+            state.lines.clear();
+            state.lines.putAll(working);
+        });
+    }
+
+    /**
+     * Runs {@code placeOrder} against the current lines of the user's cart, then empties the cart.
+     * Pending changes are flushed first in the caller's transaction, so the database cart matches what
+     * the order is built from and a checkout holds one connection. {@code placeOrder} must clear the
+     * database cart in that transaction; if it rolls back, the lines are put back into the cart.
+     */
+    public <R> R checkout(Integer userId, Function<List<CartLine>, R> placeOrder) {
+        while (true) {
+            CartState state = carts.get(userId, this::load);
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+                if (state.isDirty()) {
+                    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                        persistLocked(state);
+                    } else {
+                        flushTransaction.executeWithoutResult(status -> persistLocked(state));
+                    }
+                    state.persistedVersion = state.version;
+                }
+                List<CartLine> snapshot = new ArrayList<>(state.lines.size());
+                state.lines.values().forEach(line -> snapshot.add(line.copy()));
+                R result = placeOrder.apply(snapshot);
+
+                state.lines.clear();
+                state.version++;
+                state.persistedVersion = state.version;
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status == STATUS_COMMITTED) {
+                                journal.append("C," + userId);
+                            } else {
+                                restore(userId, snapshot);
+                            }
+                        }
+                    });
+                } else {
+                    journal.append("C," + userId);
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Writes every dirty cart to the database. Carts are written in transactions of up to
+     * cart.flush.batch-size carts; the journal files covering them are deleted only once every
+     * cart has been written.
+     */
+    @Scheduled(fixedDelayString = "${cart.flush.interval-ms:1000}")
+    public void flushDirty() {
+        // An eviction write failing during this run may cover records in the sealed files
+        long failuresBefore = evictionWriteFailures.get();
+        List<Path> sealed = journal.rotate();
+        List<CartState> dirty = new ArrayList<>();
+        for (CartState state : carts.asMap().values()) {
+            synchronized (state) {
+                if (state.isDirty() && !state.evicted) {
+                    dirty.add(state);
+                }
+            }
+        }
+        dirty.addAll(unsaved.values());
+
+        boolean allWritten = true;
+        for (int from = 0; from < dirty.size(); from += flushBatchSize) {
+            List<CartState> batch = dirty.subList(from, Math.min(from + flushBatchSize, dirty.size()));
+            Map<CartState, Long> written = new HashMap<>();
+            try {
+                flushTransaction.executeWithoutResult(status -> {
+                    for (CartState state : batch) {
+                        synchronized (state) {
+                            if (state.isDirty() && (!state.evicted || unsaved.get(state.userId) == state)) {
+                                persistLocked(state);
+                                written.put(state, state.version);
+                            }
+                        }
+                    }
+                });
+                written.forEach((state, version) -> {
+                    synchronized (state) {
+                        state.persistedVersion = Math.max(state.persistedVersion, version);
+                    }
+                    unsaved.remove(state.userId, state);
+                });
+            } catch (RuntimeException e) {
+                allWritten = false;
+                System.err.println("Cart flush failed, will retry: " + e.getMessage());
+            }
+        }
+        if (allWritten && evictionWriteFailures.get() == failuresBefore) {
+            journal.delete(sealed);
+        }
+    }
+
+    // Replays mutations that were journaled but not flushed before the last shutdown or crash
+    private void recover() {
+        List<String> records = journal.readSealed();
+        if (records.isEmpty()) {
+            return;
+        }
+        for (String record : records) {
+            Integer userId;
+            Consumer<CartState> change;
+            try {
+                String[] fields = record.split(",");
+                userId = Integer.valueOf(fields[1]);
+                change = replayOf(fields);
+            } catch (RuntimeException e) {
+                System.err.println("Skipping unreadable cart journal record: " + record);
+                continue;
+            }
+            // Not caught: if a cart cannot be loaded, startup fails and the journal stays on disk
+            mutate(userId, change);
+        }
+        flushDirty();
+    }
+
+    // Parses a journal record up front, so only malformed records are skipped
+    private static Consumer<CartState> replayOf(String[] fields) {
+        return switch (fields[0]) {
+            case "S" -> {
+                Integer productId = Integer.valueOf(fields[2]);
+                int quantity = Integer.parseInt(fields[3]);
+                double price = Double.parseDouble(fields[4]);
+                LocalDateTime dateAdded = "null".equals(fields[5]) ? null : LocalDateTime.parse(fields[5]);
+                yield state -> {
+                    CartLine existing = state.lines.get(productId);
+                    state.lines.put(productId, new CartLine(existing == null ? null : existing.itemId, productId,
+                            quantity, price, dateAdded));
+                };
+            }
+            case "R" -> {
+                Integer productId = Integer.valueOf(fields[2]);
+                yield state -> state.lines.remove(productId);
+            }
+            case "C" -> state -> state.lines.clear();
+            default -> throw new IllegalArgumentException("Unknown cart journal record type: " + fields[0]);
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirty();
+    }
+
+    private Cart mutate(Integer userId, Consumer<CartState> change) {
+        while (true) {
+            CartState state = carts.get(userId, this::load);
+            synchronized (state) {
+                // The cart was evicted (and written) after we looked it up; load it again
+                if (state.evicted) {
+                    continue;
+                }
+                change.accept(state);
+                state.version++;
+                return toCart(state);
+            }
+        }
+    }
+
+    private <R> R read(Integer userId, Function<CartState, R> reader) {
+        while (true) {
+            CartState state = carts.get(userId, this::load);
+            synchronized (state) {
+                if (!state.evicted) {
+                    return reader.apply(state);
+                }
+            }
+        }
+    }
+
+    // Puts back the lines of a checkout whose transaction rolled back, together with the cart write it made
+    private void restore(Integer userId, List<CartLine> lines) {
+        mutate(userId, state -> {
+            for (CartLine line : lines) {
+                if (!state.lines.containsKey(line.productId)) {
+                    // Its item row, if it was new, went with the rollback
+                    CartLine restored = line.copy();
+                    restored.itemId = null;
+                    state.lines.put(line.productId, restored);
+                    journalSet(state.userId, restored);
+                }
+            }
+        });
+    }
+
+    private CartState load(Integer userId) {
+        // A cart whose eviction write failed still holds the latest changes
+        CartState pending = unsaved.remove(userId);
+        if (pending != null) {
+            synchronized (pending) {
+                pending.evicted = false;
+            }
+            return pending;
+        }
+        CartState state = new CartState(userId);
+        cartRepository.findByUserId(userId).ifPresent(cart -> {
+            state.cartId = cart.getId();
+            for (CartItem item : cart.getItems()) {
+                state.lines.put(item.getProductId(), new CartLine(item.getId(), item.getProductId(),
+                        item.getQuantity(), item.getPrice(), item.getDateAdded()));
+            }
+        });
+        return state;
+    }
+
+    // Caller holds the state's monitor and an open transaction
+    private void persistLocked(CartState state) {
+        Cart cart = cartRepository.findByUserIdForUpdate(state.userId).orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setUserId(state.userId);
+            return newCart;
+        });
+        Map<Integer, CartItem> existing = new HashMap<>();
+        cart.getItems().forEach(item -> existing.put(item.getProductId(), item));
+
+        for (CartLine line : state.lines.values()) {
+            CartItem item = existing.remove(line.productId);
+            if (item == null) {
+                item = new CartItem();
+                item.setProductId(line.productId);
+                item.setCart(cart);
+                cart.getItems().add(item);
+            }
+            item.setQuantity(line.quantity);
+            item.setPrice(line.price);
+            item.setDateAdded(line.dateAdded);
+        }
+        // orphanRemoval deletes the rows of lines that are no longer in the cart
+        cart.getItems().removeAll(existing.values());
+
+        Cart saved = cartRepository.save(cart);
+        state.cartId = saved.getId();
+        for (CartItem item : saved.getItems()) {
+            CartLine line = state.lines.get(item.getProductId());
+            if (line != null) {
+                line.itemId = item.getId();
+            }
+        }
+    }
+
+    private void journalSet(Integer userId, CartLine line) {
+        journal.append("S," + userId + "," + line.productId + "," + line.quantity + "," + line.price + "," + line.dateAdded);
+    }
+
+    private Cart toCart(CartState state) {
+        Cart cart = new Cart();
+        cart.setId(state.cartId);
+        cart.setUserId(state.userId);
+        List<CartItem> items = new ArrayList<>(state.lines.size());
+        for (CartLine line : state.lines.values()) {
+            CartItem item = new CartItem();
+            item.setId(line.itemId);
+            item.setProductId(line.productId);
+            item.setQuantity(line.quantity);
+            item.setPrice(line.price);
+            item.setDateAdded(line.dateAdded);
+            items.add(item);
+        }
+        cart.setItems(items);
+        return cart;
+    }
+}
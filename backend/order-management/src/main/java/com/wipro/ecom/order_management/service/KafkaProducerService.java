@@ -4,16 +4,47 @@ import com.wipro.ecom.order_management.dto.OrderEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class KafkaProducerService {
 
-    private static final String TOPIC = "order-events";
+    public static final String TOPIC = "order-events";
 
     @Autowired
     private KafkaTemplate<String, OrderEvent> kafkaTemplate;
 
-    public void sendOrderEvent(OrderEvent event) {
-        kafkaTemplate.send(TOPIC, event);
+    /**
+     * Publishes one record per product in the event, keyed by product id. Every change to a product
+     * lands on the same partition, so consumers can work on partitions in parallel and still apply
+     * each product's changes in order. The returned future completes when all records are acknowledged.
+     */
+    public CompletableFuture<Void> sendOrderEvent(OrderEvent event) {
+        Map<Integer, List<OrderEvent.OrderItemDetail>> byProduct = new LinkedHashMap<>();
+        for (OrderEvent.OrderItemDetail item : event.getItems()) {
+            byProduct.computeIfAbsent(item.getProductId(), id -> new ArrayList<>()).add(item);
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(byProduct.size());
+        byProduct.forEach((productId, items) -> {
+            OrderEvent part = new OrderEvent(partId(event.getEventId(), productId), event.getOrderId(),
+                    event.getEventType(), items);
+            sends.add(kafkaTemplate.send(TOPIC, String.valueOf(productId), part));
+        });
+        return CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]));
+    }
+
+    // Derived from the event id, so a re-sent event produces the same per-product ids and is still deduplicated
+    private static String partId(String eventId, Integer productId) {
+        if (eventId == null) {
+            return null;
+        }
+        return UUID.nameUUIDFromBytes((eventId + "/" + productId).getBytes(StandardCharsets.UTF_8)).toString();
     }
 }
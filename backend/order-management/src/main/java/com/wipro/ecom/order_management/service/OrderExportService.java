@@ -0,0 +1,114 @@
+package com.wipro.ecom.order_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.order_management.dto.OrderExportRow;
+import com.wipro.ecom.order_management.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders straight from a streaming query to the response. Only the order currently being
+ * written is held in memory, so an export costs the same heap whatever the date range.
+ * If the client goes away the next write fails, the query stream is closed and the export stops.
+ */
+@Service
+public class OrderExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime from, LocalDateTime to, String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRows(from, to)) {
+            if (CSV.equals(format)) {
+                writeCsv(rows.iterator(), writer);
+            } else {
+                writeNdjson(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    // One JSON object per order, with its items nested; rows arrive grouped by order
+    private void writeNdjson(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        OrderExportRow current = null;
+        List<Map<String, Object>> items = new ArrayList<>();
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (current != null && !current.getOrderId().equals(row.getOrderId())) {
+                writeOrderLine(current, items, writer);
+                items.clear();
+            }
+            current = row;
+            if (row.getProductId() != null) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("productId", row.getProductId());
+                item.put("quantity", row.getQuantity());
+                item.put("price", row.getPrice());
+                items.add(item);
+            }
+        }
+        if (current != null) {
+            writeOrderLine(current, items, writer);
+        }
+    }
+
+    private void writeOrderLine(OrderExportRow order, List<Map<String, Object>> items, Writer writer) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("orderId", order.getOrderId());
+        line.put("userId", order.getUserId());
+        line.put("totalAmount", order.getTotalAmount());
+        line.put("orderStatus", order.getOrderStatus());
+        line.put("orderDate", order.getOrderDate() == null ? null : order.getOrderDate().toString());
+        line.put("items", items);
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    // One line per order item; an order without items gets a single line with empty item columns
+    private void writeCsv(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        writer.write("orderId,userId,totalAmount,orderStatus,orderDate,productId,quantity,price\n");
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            writer.write(csv(row.getOrderId()) + "," + csv(row.getUserId()) + "," + csv(row.getTotalAmount()) + ","
+                    + csvText(row.getOrderStatus()) + "," + csv(row.getOrderDate()) + ","
+                    + csv(row.getProductId()) + "," + csv(row.getQuantity()) + "," + csv(row.getPrice()) + "\n");
+        }
+    }
+
+    private static String csv(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
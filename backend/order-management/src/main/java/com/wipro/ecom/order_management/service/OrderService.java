@@ -1,23 +1,47 @@
 package com.wipro.ecom.order_management.service;
 
 import com.wipro.ecom.order_management.dto.OrderEvent;
+import com.wipro.ecom.order_management.dto.OrderEventType;
+import com.wipro.ecom.order_management.dto.OrderPage;
+import com.wipro.ecom.order_management.dto.OrderSummary;
 import com.wipro.ecom.order_management.entity.Order;
+import com.wipro.ecom.order_management.entity.OrderItem;
+import com.wipro.ecom.order_management.repository.CartRepository;
 import com.wipro.ecom.order_management.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
     
     @Autowired
-    private KafkaProducerService kafkaProducerService;
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ProductPriceCache productPriceCache;
 
     @Transactional
     // --- THIS IS THE FIX ---
@@ -25,15 +49,87 @@ public class OrderService {
     public Order createOrder(Order order, Integer customerId) {
 
         order.setUserId(customerId);
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+
+        // Line prices and the total come from the product price cache, never from the client
+        Map<Integer, Double> prices = productPriceCache.getPrices(
+                order.getItems().stream().map(OrderItem::getProductId).toList());
+        double totalAmount = 0;
+        for (OrderItem item : order.getItems()) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product id: " + item.getProductId());
+            }
+            Double price = prices.get(item.getProductId());
+            if (price == null) {
+                throw new IllegalArgumentException("Unknown product id: " + item.getProductId());
+            }
+            item.setPrice(price);
+            totalAmount += price * item.getQuantity();
+        }
+        order.setTotalAmount(totalAmount);
+
         List<OrderEvent.OrderItemDetail> itemDetails = order.getItems().stream()
             .map(item -> new OrderEvent.OrderItemDetail(item.getProductId(), item.getQuantity()))
             .collect(Collectors.toList());
         
-        kafkaProducerService.sendOrderEvent(new OrderEvent("ORDER_PLACED", itemDetails));
-        
         order.setOrderDate(LocalDateTime.now());
         order.setOrderStatus("PLACED");
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+
+        // Published by the outbox relay after this transaction commits
+        outboxService.enqueue(savedOrder.getOrderId(), orderEvent(savedOrder.getOrderId(), OrderEventType.ORDER_PLACED, itemDetails));
+        return savedOrder;
+    }
+
+    /**
+     * Turns the user's cart into an order in one transaction: the order and its items are inserted,
+     * lines are priced from current product prices and the total computed from them, the cart is emptied and a single ORDER_PLACED
+     * event is queued for publishing.
+     */
+    @Transactional
+    public Order checkout(Integer customerId) {
+        // The cart store flushes pending cart changes first and holds the cart while the order is placed
+        return cartStore.checkout(customerId, lines -> {
+            if (lines.isEmpty()) {
+                throw new IllegalStateException("Cart is empty");
+            }
+
+            // Priced now from the product price cache, like createOrder: the price on a cart line is only for display
+            Map<Integer, Double> prices = productPriceCache.getPrices(
+                    lines.stream().map(CartStore.CartLine::getProductId).toList());
+            List<OrderItem> orderItems = new ArrayList<>(lines.size());
+            List<OrderEvent.OrderItemDetail> itemDetails = new ArrayList<>(lines.size());
+            double totalAmount = 0;
+            for (CartStore.CartLine line : lines) {
+                Double price = prices.get(line.getProductId());
+                if (price == null) {
+                    throw new IllegalArgumentException("Unknown product id: " + line.getProductId());
+                }
+                OrderItem orderItem = new OrderItem();
+                orderItem.setProductId(line.getProductId());
+                orderItem.setQuantity(line.getQuantity());
+                orderItem.setPrice(price);
+                orderItems.add(orderItem);
+                itemDetails.add(new OrderEvent.OrderItemDetail(line.getProductId(), line.getQuantity()));
+                totalAmount += price * line.getQuantity();
+            }
+
+            Order order = new Order();
+            order.setUserId(customerId);
+            order.setItems(orderItems);
+            order.setTotalAmount(totalAmount);
+            order.setOrderDate(LocalDateTime.now());
+            order.setOrderStatus("PLACED");
+            Order savedOrder = orderRepository.save(order);
+
+            // orphanRemoval deletes the cart_items rows when the transaction flushes
+            cartRepository.findByUserIdForUpdate(customerId).ifPresent(cart -> cart.getItems().clear());
+
+            outboxService.enqueue(savedOrder.getOrderId(), orderEvent(savedOrder.getOrderId(), OrderEventType.ORDER_PLACED, itemDetails));
+            return savedOrder;
+        });
     }
 
     @Transactional
@@ -54,15 +150,75 @@ public class OrderService {
             .map(item -> new OrderEvent.OrderItemDetail(item.getProductId(), item.getQuantity()))
             .collect(Collectors.toList());
 
-        kafkaProducerService.sendOrderEvent(new OrderEvent("ORDER_CANCELLED", itemDetails));
-
         order.setOrderStatus("CANCELLED");
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+
+        outboxService.enqueue(savedOrder.getOrderId(), orderEvent(savedOrder.getOrderId(), OrderEventType.ORDER_CANCELLED, itemDetails));
+        return savedOrder;
+    }
+    /**
+     * One keyset page of orders, newest first, with their items. The page's order ids are selected
+     * first and then loaded with their items in a single query, so item loading never fans out per order.
+     * A null {@code userId} pages over all users.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage<Order> getOrderPage(Integer userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor after = decodeCursor(cursor);
+        List<Integer> ids = orderRepository.findPageIds(userId, after.orderDate, after.orderId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        List<Order> orders = ids.isEmpty()
+                ? List.of()
+                : orderRepository.findWithItemsByOrderIdIn(hasMore ? ids.subList(0, pageSize) : ids);
+        String next = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            next = encodeCursor(last.getOrderDate(), last.getOrderId());
+        }
+        return new OrderPage<>(orders, next);
+    }
+
+    // Same paging as getOrderPage but reads only the order headers; items are never touched
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrderSummaryPage(Integer userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor after = decodeCursor(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> rows = orderRepository.findSummaryPage(userId, after.orderDate, after.orderId, limit);
+        if (rows.size() <= pageSize) {
+            return new OrderPage<>(rows, null);
+        }
+        List<OrderSummary> page = List.copyOf(rows.subList(0, pageSize));
+        OrderSummary last = page.get(pageSize - 1);
+        return new OrderPage<>(page, encodeCursor(last.getOrderDate(), last.getOrderId()));
+    }
+
+    // The id is fixed here, before the event is stored in the outbox, so every re-send carries the same id
+    private static OrderEvent orderEvent(Integer orderId, OrderEventType eventType, List<OrderEvent.OrderItemDetail> items) {
+        return new OrderEvent(UUID.randomUUID().toString(), orderId, eventType, items);
     }
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
-    public List<Order> getOrdersByUserId(Integer userId) {
-        return orderRepository.findByUserId(userId);
+
+    private record Cursor(LocalDateTime orderDate, Integer orderId) {
+    }
+
+    private static String encodeCursor(LocalDateTime orderDate, Integer orderId) {
+        String raw = orderDate + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new Cursor(null, null);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new Cursor(LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
     }
 }
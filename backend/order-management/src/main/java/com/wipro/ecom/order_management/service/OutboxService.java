@@ -0,0 +1,132 @@
+package com.wipro.ecom.order_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.order_management.dto.OrderEvent;
+import com.wipro.ecom.order_management.entity.OutboxEvent;
+import com.wipro.ecom.order_management.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    // How long a claimed row is left alone by other relays; must comfortably exceed the ack timeout
+    @Value("${outbox.relay.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Joins the caller's transaction: the event is only ever visible to the relay if the order commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Integer orderId, OrderEvent event) {
+        OutboxEvent row = new OutboxEvent();
+        row.setOrderId(orderId);
+        row.setEventType(event.getEventType().name());
+        row.setPayload(toJson(event));
+        row.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(row);
+    }
+
+    /**
+     * Drains the outbox to Kafka in three steps, so no row lock is held while waiting on the broker:
+     * claim a batch in a short transaction, send it and wait for the acks, then delete the acknowledged
+     * rows and release the claims on the rest, which are picked up again on the next run.
+     *
+     * A batch holds at most one event per order (see {@link OutboxEventRepository#lockNextBatch}), so
+     * a failed send can never be overtaken by a later event for the same order.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent row : batch) {
+            sends.add(kafkaProducerService.sendOrderEvent(fromJson(row.getPayload())));
+        }
+
+        // One deadline for the whole batch, well inside the claim lease
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        List<Long> acked = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(batch.get(i).getId());
+            } catch (Exception e) {
+                System.err.println("Outbox event " + batch.get(i).getId() + " not acknowledged: " + e.getMessage());
+                failed.add(batch.get(i).getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(acked);
+            if (!failed.isEmpty()) {
+                outboxEventRepository.releaseClaims(failed);
+            }
+        });
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(now, batchSize);
+        LocalDateTime claimedUntil = now.plus(Duration.ofMillis(claimLeaseMs));
+        for (OutboxEvent row : batch) {
+            row.setClaimedUntil(claimedUntil);
+        }
+        return batch;
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event", e);
+        }
+    }
+
+    private OrderEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not deserialize order event", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.wipro.ecom.order_management.service;
+
+import com.wipro.ecom.order_management.dto.ProductInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Typed client for product-management. Products are fetched in bulk with {@code GET /product/by-ids},
+ * at most {@code product-service.max-batch-size} ids per call so the URL stays bounded.
+ *
+ * Concurrent lookups are de-duplicated: an id that another thread is already fetching is not requested
+ * again, the caller waits for that fetch instead. So a burst of checkouts missing the same product in
+ * the price cache makes one HTTP call, not one per checkout.
+ */
+@Service
+public class ProductClient {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${product-service.url:http://localhost:8082}")
+    private String productServiceUrl;
+
+    @Value("${product-service.max-batch-size:100}")
+    private int maxBatchSize;
+
+    // Fetches in progress, by product id; an empty result means the product does not exist
+    private final Map<Integer, CompletableFuture<Optional<ProductInfo>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter fetched;
+    private final Counter shared;
+
+    public ProductClient(MeterRegistry meterRegistry) {
+        this.fetched = meterRegistry.counter("product.client.lookups", "result", "fetched");
+        this.shared = meterRegistry.counter("product.client.lookups", "result", "shared");
+    }
+
+    // Products that do not exist are absent from the result
+    public Map<Integer, ProductInfo> getProducts(Collection<Integer> productIds) {
+        Map<Integer, CompletableFuture<Optional<ProductInfo>>> owned = new HashMap<>();
+        Map<Integer, CompletableFuture<Optional<ProductInfo>>> awaited = new HashMap<>();
+        for (Integer id : productIds) {
+            if (owned.containsKey(id) || awaited.containsKey(id)) {
+                continue;
+            }
+            CompletableFuture<Optional<ProductInfo>> mine = new CompletableFuture<>();
+            CompletableFuture<Optional<ProductInfo>> running = inFlight.putIfAbsent(id, mine);
+            if (running == null) {
+                owned.put(id, mine);
+            } else {
+                awaited.put(id, running);
+            }
+        }
+        fetched.increment(owned.size());
+        shared.increment(awaited.size());
+
+        if (!owned.isEmpty()) {
+            try {
+                fetch(owned);
+            } finally {
+                // Never leave a waiting caller hanging, whatever stopped the fetch
+                owned.values().forEach(future -> future.completeExceptionally(
+                        new IllegalStateException("Product lookup did not complete")));
+                owned.forEach(inFlight::remove);
+            }
+        }
+
+        Map<Integer, ProductInfo> byId = new HashMap<>();
+        owned.forEach((id, future) -> future.join().ifPresent(product -> byId.put(id, product)));
+        awaited.forEach((id, future) -> join(future).ifPresent(product -> byId.put(id, product)));
+        return byId;
+    }
+
+    // One HTTP call per max-batch-size ids; completes every future, failing them if a call fails
+    private void fetch(Map<Integer, CompletableFuture<Optional<ProductInfo>>> futures) {
+        List<Integer> ids = new ArrayList<>(futures.keySet());
+        try {
+            for (int from = 0; from < ids.size(); from += maxBatchSize) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + maxBatchSize, ids.size()));
+                String url = UriComponentsBuilder.fromUriString(productServiceUrl)
+                        .path("/product/by-ids")
+                        .queryParam("ids", chunk.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                        .toUriString();
+                List<ProductInfo> products = restTemplate.exchange(url, HttpMethod.GET, null,
+                        new ParameterizedTypeReference<List<ProductInfo>>() { }).getBody();
+                Map<Integer, ProductInfo> found = new HashMap<>();
+                if (products != null) {
+                    products.forEach(product -> found.put(product.getId(), product));
+                }
+                chunk.forEach(id -> futures.get(id).complete(Optional.ofNullable(found.get(id))));
+            }
+        } catch (RuntimeException e) {
+            // Waiting callers fail with the same error; chunks already fetched keep their results
+            futures.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    private static Optional<ProductInfo> join(CompletableFuture<Optional<ProductInfo>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.wipro.ecom.order_management.service;
+
+import com.wipro.ecom.order_management.config.KafkaConsumerConfig;
+import com.wipro.ecom.order_management.dto.ProductChangeEvent;
+import com.wipro.ecom.order_management.dto.ProductInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of product prices, kept current by the product-changes topic. Prices that are not
+ * known yet are fetched from product-management in one batched call and remembered.
+ */
+@Service
+public class ProductPriceCache {
+
+    @Autowired
+    private ProductClient productClient;
+
+    private final Map<Integer, Double> prices = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductPriceCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("product.price.cache", "result", "hit");
+        this.misses = meterRegistry.counter("product.price.cache", "result", "miss");
+        meterRegistry.gaugeMapSize("product.price.cache.size", List.of(), prices);
+    }
+
+    // Every instance needs every change, not a share of them: all partitions are assigned manually and read
+    // from offset 0 on each start. product-changes.partitions must match the topic declared by product-management.
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "product-changes",
+                   partitions = "#{'0-' + (${product-changes.partitions:3} - 1)}",
+                   partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+                   containerFactory = KafkaConsumerConfig.PRODUCT_CHANGE_FACTORY)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event == null || event.getProductId() == null) {
+            return;
+        }
+        if ("DELETED".equals(event.getChangeType()) || event.getPrice() == null) {
+            prices.remove(event.getProductId());
+        } else {
+            prices.put(event.getProductId(), event.getPrice());
+        }
+    }
+
+    /**
+     * Current price of each requested product. Products that do not exist are left out of the result.
+     */
+    public Map<Integer, Double> getPrices(Collection<Integer> productIds) {
+        Map<Integer, Double> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : productIds) {
+            Double price = prices.get(id);
+            if (price != null) {
+                result.put(id, price);
+            } else if (!missing.contains(id)) {
+                missing.add(id);
+            }
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+        for (ProductInfo product : productClient.getProducts(missing).values()) {
+            // A change event that arrived while the fetch was in flight is newer, so it wins
+            Double price = prices.putIfAbsent(product.getId(), product.getPrice());
+            result.put(product.getId(), price != null ? price : product.getPrice());
+        }
+        return result;
+    }
+}
@@ -1,17 +1,16 @@
 package com.wipro.ecom.order_management.util;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
-    
-    @Value("${jwt.secret}")
-    private String secretKey;
+
+    @Autowired
+    private VerifiedClaimsCache verifiedClaimsCache;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -26,15 +25,19 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody();
+    public Claims extractAllClaims(String token) {
+        return verifiedClaimsCache.verify(token);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Boolean validateToken(String token) {
-        return !isTokenExpired(token);
+        return !isTokenExpired(extractAllClaims(token));
+    }
+
+    public Boolean validateToken(Claims claims) {
+        return !isTokenExpired(claims);
     }
 }
@@ -0,0 +1,59 @@
+package com.wipro.ecom.order_management.repository;
+
+import com.wipro.ecom.order_management.config.JpaConfig;
+import com.wipro.ecom.order_management.entity.Order;
+import com.wipro.ecom.order_management.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaConfig.class)
+class OrderRepositoryBatchInsertTests {
+
+	private static final int LINES = 20;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void persistingLargeOrderBatchesItemInserts() {
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		List<OrderItem> items = new ArrayList<>();
+		for (int i = 0; i < LINES; i++) {
+			OrderItem item = new OrderItem();
+			item.setProductId(i + 1);
+			item.setQuantity(1);
+			item.setPrice(10.0);
+			items.add(item);
+		}
+		Order order = new Order();
+		order.setUserId(1);
+		order.setOrderStatus("PLACED");
+		order.setOrderDate(LocalDateTime.now());
+		order.setTotalAmount(10.0 * LINES);
+		order.setItems(items);
+
+		statistics.clear();
+		orderRepository.save(order);
+		entityManager.flush();
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(LINES + 1);
+		// With IDENTITY ids every row needs its own INSERT; with pooled ids the 20 item rows share one batched statement
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(LINES);
+	}
+}
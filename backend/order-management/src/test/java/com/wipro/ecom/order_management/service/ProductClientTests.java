@@ -0,0 +1,103 @@
+package com.wipro.ecom.order_management.service;
+
+import com.wipro.ecom.order_management.dto.ProductInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductClientTests {
+
+	private final RestTemplate restTemplate = mock(RestTemplate.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ProductClient client = new ProductClient(meterRegistry);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(client, "productServiceUrl", "http://products");
+		ReflectionTestUtils.setField(client, "maxBatchSize", 2);
+	}
+
+	@Test
+	void splitsLookupsIntoBatchesAndLeavesOutUnknownProducts() {
+		when(exchange()).thenReturn(ResponseEntity.ok(List.of(product(1), product(2))), ResponseEntity.ok(List.of()));
+
+		Map<Integer, ProductInfo> products = client.getProducts(List.of(1, 2, 2, 3));
+
+		assertThat(products).containsOnlyKeys(1, 2);
+		verify(restTemplate).exchange(eq("http://products/product/by-ids?ids=1,2"), eq(HttpMethod.GET), isNull(),
+				any(ParameterizedTypeReference.class));
+		verify(restTemplate).exchange(eq("http://products/product/by-ids?ids=3"), eq(HttpMethod.GET), isNull(),
+				any(ParameterizedTypeReference.class));
+	}
+
+	@Test
+	void concurrentLookupsOfTheSameProductShareOneCall() throws Exception {
+		CountDownLatch called = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(exchange()).thenAnswer(invocation -> {
+			called.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return ResponseEntity.ok(List.of(product(7)));
+		});
+
+		CompletableFuture<Map<Integer, ProductInfo>> first = CompletableFuture.supplyAsync(() -> client.getProducts(List.of(7)));
+		assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Map<Integer, ProductInfo>> second = CompletableFuture.supplyAsync(() -> client.getProducts(List.of(7)));
+		awaitShared(1);
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).containsOnlyKeys(7);
+		assertThat(second.get(5, TimeUnit.SECONDS)).containsOnlyKeys(7);
+		verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+	}
+
+	@Test
+	void failedCallIsNotRememberedForLaterLookups() {
+		when(exchange()).thenThrow(new ResourceAccessException("connection refused"))
+				.thenReturn(ResponseEntity.ok(List.of(product(7))));
+
+		assertThatThrownBy(() -> client.getProducts(List.of(7))).isInstanceOf(ResourceAccessException.class);
+		assertThat(client.getProducts(List.of(7))).containsOnlyKeys(7);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ResponseEntity<List<ProductInfo>> exchange() {
+		return restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+	}
+
+	private void awaitShared(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.counter("product.client.lookups", "result", "shared").count() < count) {
+			assertThat(System.nanoTime()).as("lookup shared within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static ProductInfo product(int id) {
+		return new ProductInfo(id, "Product " + id, 10.0 * id, 5);
+	}
+}
@@ -0,0 +1,96 @@
+package com.wipro.ecom.order_management.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.order_management.dto.OrderEvent;
+import com.wipro.ecom.order_management.dto.OrderEventType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary order event encoding with the Jackson JSON it replaced.
+ * Not part of the test run; start it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.wipro.ecom.order_management.util.OrderEventSerializationBenchmark}
+ * or from the IDE. Payload sizes for each item count are printed before the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEventSerializationBenchmark {
+
+	// Order events are split per product, so one item is the common case on the topic
+	@Param({"1", "10"})
+	private int items;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final OrderEventSerializer serializer = new OrderEventSerializer();
+	private final OrderEventDeserializer deserializer = new OrderEventDeserializer();
+
+	private OrderEvent event;
+	private byte[] json;
+	private byte[] binary;
+
+	@Setup
+	public void setUp() throws Exception {
+		event = sampleEvent(items);
+		json = objectMapper.writeValueAsBytes(event);
+		binary = serializer.serialize("order-events", event);
+	}
+
+	@Benchmark
+	public byte[] encodeJson() throws Exception {
+		return objectMapper.writeValueAsBytes(event);
+	}
+
+	@Benchmark
+	public byte[] encodeBinary() {
+		return serializer.serialize("order-events", event);
+	}
+
+	@Benchmark
+	public OrderEvent decodeJson() throws Exception {
+		return objectMapper.readValue(json, OrderEvent.class);
+	}
+
+	@Benchmark
+	public OrderEvent decodeBinary() {
+		return deserializer.deserialize("order-events", binary);
+	}
+
+	static OrderEvent sampleEvent(int itemCount) {
+		List<OrderEvent.OrderItemDetail> details = new ArrayList<>(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			details.add(new OrderEvent.OrderItemDetail(1000 + i * 37, 1 + i % 4));
+		}
+		return new OrderEvent(UUID.randomUUID().toString(), 250_000, OrderEventType.ORDER_PLACED, details);
+	}
+
+	public static void main(String[] args) throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		OrderEventSerializer serializer = new OrderEventSerializer();
+		for (int itemCount : new int[] {1, 10}) {
+			OrderEvent event = sampleEvent(itemCount);
+			System.out.printf("items=%d json=%d bytes binary=%d bytes%n", itemCount,
+					objectMapper.writeValueAsBytes(event).length, serializer.serialize("order-events", event).length);
+		}
+		new Runner(new OptionsBuilder().include(OrderEventSerializationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
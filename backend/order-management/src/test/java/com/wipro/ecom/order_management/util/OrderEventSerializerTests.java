@@ -0,0 +1,67 @@
+package com.wipro.ecom.order_management.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.order_management.dto.OrderEvent;
+import com.wipro.ecom.order_management.dto.OrderEventType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventSerializerTests {
+
+	private final OrderEventSerializer serializer = new OrderEventSerializer();
+	private final OrderEventDeserializer deserializer = new OrderEventDeserializer();
+
+	@Test
+	void binaryEncodingRoundTrips() {
+		OrderEvent event = new OrderEvent(UUID.randomUUID().toString(), 123456, OrderEventType.ORDER_CANCELLED, List.of(
+				new OrderEvent.OrderItemDetail(7, 3),
+				new OrderEvent.OrderItemDetail(Integer.MAX_VALUE - 1, -5)));
+
+		byte[] bytes = serializer.serialize("order-events", event);
+
+		assertThat(deserializer.deserialize("order-events", bytes)).isEqualTo(event);
+	}
+
+	@Test
+	void absentIdsRoundTrip() {
+		OrderEvent event = new OrderEvent(null, null, OrderEventType.ORDER_PLACED, List.of(new OrderEvent.OrderItemDetail(null, 1)));
+
+		assertThat(deserializer.deserialize("order-events", serializer.serialize("order-events", event))).isEqualTo(event);
+	}
+
+	@Test
+	void jsonFromOlderProducersIsStillRead() throws Exception {
+		OrderEvent event = new OrderEvent(UUID.randomUUID().toString(), 42, OrderEventType.ORDER_PLACED,
+				List.of(new OrderEvent.OrderItemDetail(1, 2)));
+		byte[] json = new ObjectMapper().writeValueAsBytes(event);
+
+		assertThat(deserializer.deserialize("order-events", json)).isEqualTo(event);
+	}
+
+	@Test
+	void binaryIsSmallerThanJson() throws Exception {
+		OrderEvent event = new OrderEvent(UUID.randomUUID().toString(), 1000, OrderEventType.ORDER_PLACED,
+				List.of(new OrderEvent.OrderItemDetail(250, 2)));
+
+		assertThat(serializer.serialize("order-events", event).length)
+				.isLessThan(new ObjectMapper().writeValueAsBytes(event).length / 3);
+	}
+
+	@Test
+	void corruptItemCountIsRejectedWithoutAllocating() {
+		byte[] empty = serializer.serialize("order-events", new OrderEvent(null, 1, OrderEventType.ORDER_PLACED, List.of()));
+		// The last byte is the item count; replace it with a varint for Integer.MAX_VALUE
+		byte[] corrupt = Arrays.copyOf(empty, empty.length + 4);
+		System.arraycopy(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, corrupt, empty.length - 1, 5);
+
+		assertThatThrownBy(() -> deserializer.deserialize("order-events", corrupt))
+				.isInstanceOf(SerializationException.class);
+	}
+}
@@ -2,6 +2,7 @@ package com.wipro.ecom.product_management.config;
 
 
 import com.wipro.ecom.product_management.util.JwtUtil; // Ensure this import is correct
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -32,14 +33,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
         List<GrantedAuthority> authorities = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                String role = jwtUtil.extractClaim(jwt, claims -> claims.get("role", String.class));
+                // Verified once; username, role and expiry all come from the same parsed claims
+                claims = jwtUtil.extractAllClaims(jwt);
+                username = claims.getSubject();
+                String role = claims.get("role", String.class);
                 authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
             } catch (ExpiredJwtException e) {
@@ -51,7 +54,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             // Since this service doesn't have UserDetails, we create a simple token from the JWT claims
-            if (jwtUtil.validateToken(jwt)) { // Simplified validation
+            if (jwtUtil.validateToken(claims)) { // Simplified validation
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         username, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,98 @@
+package com.wipro.ecom.product_management.config;
+
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import com.wipro.ecom.product_management.util.OrderEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String ORDER_EVENTS_TOPIC = "order-events";
+    public static final String ORDER_EVENT_BATCH_FACTORY = "orderEventBatchFactory";
+    public static final String ORDER_EVENT_RETRY_FACTORY = "orderEventRetryFactory";
+
+    @Value("${order-events.batch.size:500}")
+    private int batchSize;
+
+    @Value("${order-events.batch.max-wait-ms:500}")
+    private int maxWaitMs;
+
+    @Value("${order-events.batch.min-bytes:16384}")
+    private int minBytes;
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
+
+    // Consumer threads per instance; 0 means one per available core
+    @Value("${order-events.consumer.max-concurrency:0}")
+    private int maxConcurrency;
+
+    /**
+     * Batch listener factory for order events. It starts from the Boot-configured consumer settings
+     * (bootstrap servers, deserializers) and only overrides how much is pulled per poll and how long
+     * the broker may hold a fetch to fill it. Offsets are committed once per batch, after the listener returns.
+     */
+    @Bean(name = ORDER_EVENT_BATCH_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventBatchFactory(
+            ConsumerFactory<Object, Object> bootConsumerFactory, MeterRegistry meterRegistry) {
+        Map<String, Object> config = new HashMap<>(bootConsumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, maxWaitMs);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBytes);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // Keys are product ids; values use the compact binary encoding (JSON from older producers is still read)
+        DefaultKafkaConsumerFactory<String, OrderEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new OrderEventDeserializer()));
+        // Publishes the client's own metrics, including records-lag-max per partition
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * max-concurrency consumer threads (one per core by default). Order events are keyed by product id,
+     * so each product's changes stay on one partition and one thread, and threads never contend for the
+     * same product rows. The partition count is not looked up: order-management owns the topic and it may
+     * not exist yet when this service starts, and threads beyond the partition count just sit idle.
+     */
+    private int concurrency() {
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        log.info("Consuming {} with {} threads; threads beyond its partition count stay idle", ORDER_EVENTS_TOPIC, concurrency);
+        return concurrency;
+    }
+
+    // Record listener factory for the order event retry and dead-letter topics, written by this service
+    // in the same binary encoding as order-events
+    @Bean(name = ORDER_EVENT_RETRY_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> orderEventRetryFactory(
+            ConsumerFactory<Object, Object> bootConsumerFactory) {
+        Map<String, Object> config = new HashMap<>(bootConsumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new OrderEventDeserializer())));
+        return factory;
+    }
+}
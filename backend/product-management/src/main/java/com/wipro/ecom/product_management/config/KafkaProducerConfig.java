@@ -0,0 +1,49 @@
+package com.wipro.ecom.product_management.config;
+
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import com.wipro.ecom.product_management.dto.ProductChangeEvent;
+import com.wipro.ecom.product_management.util.OrderEventSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    public static final String ORDER_EVENT_TEMPLATE = "orderEventKafkaTemplate";
+
+    /**
+     * Template for product change events. It reuses the Boot-configured producer settings but always
+     * writes the key as a string and the value as plain JSON without type headers, so consumers in
+     * other services can read it into their own class.
+     */
+    @Bean
+    public KafkaTemplate<String, ProductChangeEvent> productChangeKafkaTemplate(ProducerFactory<?, ?> bootProducerFactory) {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(jsonConfig(bootProducerFactory),
+                new StringSerializer(), new JsonSerializer<ProductChangeEvent>()));
+    }
+
+    // Writes order events to the retry and dead-letter topics, in the same binary encoding as order-events
+    @Bean(name = ORDER_EVENT_TEMPLATE)
+    public KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate(ProducerFactory<?, ?> bootProducerFactory) {
+        Map<String, Object> config = new HashMap<>(bootProducerFactory.getConfigurationProperties());
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config,
+                new StringSerializer(), new OrderEventSerializer()));
+    }
+
+    private static Map<String, Object> jsonConfig(ProducerFactory<?, ?> bootProducerFactory) {
+        Map<String, Object> config = new HashMap<>(bootProducerFactory.getConfigurationProperties());
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return config;
+    }
+}
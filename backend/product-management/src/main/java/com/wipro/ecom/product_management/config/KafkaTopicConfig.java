@@ -0,0 +1,30 @@
+package com.wipro.ecom.product_management.config;
+
+import com.wipro.ecom.product_management.service.ProductChangePublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Order-management assigns itself every partition, so its product-changes.partitions must match this one
+    @Value("${product-changes.partitions:3}")
+    private int partitions;
+
+    @Value("${product-changes.replicas:1}")
+    private short replicas;
+
+    // Compacted: the topic keeps the latest change per product, which is what the price caches replay on startup
+    @Bean
+    public NewTopic productChangesTopic() {
+        return TopicBuilder.name(ProductChangePublisher.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)
+                .build();
+    }
+}
@@ -32,6 +32,8 @@ public class SecurityConfig {
           .cors(cors -> cors.configurationSource(corsConfigurationSource())) // enable CORS
           .authorizeHttpRequests(auth -> auth
               // Public API endpoints
+              // Reservations are not public even for reads; checked before the GET rule below
+              .requestMatchers("/product/stock/**").authenticated()
               .requestMatchers(HttpMethod.GET, "/product/**").permitAll()
               .requestMatchers("/auth/**").permitAll()
               
@@ -51,6 +53,7 @@ public class SecurityConfig {
       configuration.setAllowedOrigins(List.of("http://localhost:4200")); // Angular frontend
       configuration.setAllowedMethods(Arrays.asList("GET","POST","PUT","DELETE","OPTIONS"));
       configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+      configuration.setExposedHeaders(List.of("X-Next-Cursor")); // keyset pagination cursor on GET /product
       configuration.setAllowCredentials(true);
 
       UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,12 +1,19 @@
 package com.wipro.ecom.product_management.controller;
 
+import com.wipro.ecom.product_management.dto.ProductPage;
+import com.wipro.ecom.product_management.dto.StockReservationRequest;
+import com.wipro.ecom.product_management.entity.ParkedOrderEvent;
 import com.wipro.ecom.product_management.entity.Product;
+import com.wipro.ecom.product_management.entity.StockReservation;
+import com.wipro.ecom.product_management.service.OrderEventRetryService;
 import com.wipro.ecom.product_management.service.ProductService;
+import com.wipro.ecom.product_management.service.StockReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,14 +25,54 @@ import java.util.Map;
 @Tag(name = "Product Management", description = "APIs for managing the product catalog. Write operations are Admin-only.")
 public class ProductController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // No service credential is issued yet, so reservations are admin-only until one is
+    public static final String RESERVATION_ACCESS = "hasRole('ADMIN')";
+
     @Autowired
     private ProductService productService;
 
-    @Operation(summary = "Get a list of all available products")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of products")
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OrderEventRetryService orderEventRetryService;
+
+    @Operation(summary = "Get a page of available products",
+               description = "Keyset-paginated listing. The body is the page of products; when more rows exist the "
+                       + "X-Next-Cursor response header carries the cursor for the next page. "
+                       + "sort is one of id (default), price_asc, price_desc.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of products"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort")
+    })
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String prodCat,
+                                                        @RequestParam(required = false) String make,
+                                                        @RequestParam(required = false) Double minPrice,
+                                                        @RequestParam(required = false) Double maxPrice,
+                                                        @RequestParam(required = false, defaultValue = "id") String sort) {
+        ProductPage page;
+        try {
+            page = productService.getProductPage(cursor, size, prodCat, make, minPrice, maxPrice, sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @Operation(summary = "Get several products by ID in one call",
+               description = "ids is a comma-separated list; unknown ids are left out of the result.")
+    @ApiResponse(responseCode = "200", description = "Products found")
+    @GetMapping("/by-ids")
+    public List<Product> getProductsByIds(@RequestParam List<Integer> ids) {
+        return productService.getProductsByIds(ids);
     }
 
     @Operation(summary = "Get a single product by its ID")
@@ -86,6 +133,89 @@ public class ProductController {
     public ResponseEntity<Product> updateStock(@RequestBody Map<String, Integer> payload) {
         Integer productId = payload.get("productId");
         Integer quantityChange = payload.get("quantityChange");
-        return ResponseEntity.ok(productService.updateStock(productId, quantityChange));
+        productService.updateStock(productId, quantityChange);
+        return productService.getProductById(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Reserve stock for several products at once (Admin only)",
+               description = "Takes the stock for every line or for none. The reservation expires after ttlSeconds unless confirmed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock reserved"),
+            @ApiResponse(responseCode = "400", description = "Invalid reservation request"),
+            @ApiResponse(responseCode = "409", description = "A product is missing or does not have enough stock; nothing was reserved")
+    })
+    @PostMapping("/stock/reservations")
+    @PreAuthorize(RESERVATION_ACCESS)
+    public ResponseEntity<?> reserveStock(@RequestBody StockReservationRequest request) {
+        try {
+            return new ResponseEntity<>(stockReservationService.reserve(request), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Get a stock reservation (Admin only)")
+    @GetMapping("/stock/reservations/{id}")
+    @PreAuthorize(RESERVATION_ACCESS)
+    public ResponseEntity<StockReservation> getReservation(@PathVariable String id) {
+        return stockReservationService.getReservation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Confirm a stock reservation so it no longer expires (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation confirmed"),
+            @ApiResponse(responseCode = "409", description = "Reservation not found or no longer held")
+    })
+    @PostMapping("/stock/reservations/{id}/confirm")
+    @PreAuthorize(RESERVATION_ACCESS)
+    public ResponseEntity<Void> confirmReservation(@PathVariable String id) {
+        return stockReservationService.confirm(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(summary = "Release a stock reservation and return its stock (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation released"),
+            @ApiResponse(responseCode = "409", description = "Reservation not found or no longer held")
+    })
+    @PostMapping("/stock/reservations/{id}/release")
+    @PreAuthorize(RESERVATION_ACCESS)
+    public ResponseEntity<Void> releaseReservation(@PathVariable String id) {
+        return stockReservationService.release(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(summary = "List order events parked after all stock-update retries failed (Admin only)")
+    @ApiResponse(responseCode = "200", description = "Parked events, oldest first, with the failure reason")
+    @GetMapping("/events/parked")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ParkedOrderEvent> getParkedEvents() {
+        return orderEventRetryService.getParkedEvents();
+    }
+
+    @Operation(summary = "Replay a parked order event through the retry path (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Event sent for retry and removed from the parked list"),
+            @ApiResponse(responseCode = "404", description = "No parked event with that id"),
+            @ApiResponse(responseCode = "409", description = "The parked event has no readable payload")
+    })
+    @PostMapping("/events/parked/{id}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> replayParkedEvent(@PathVariable Long id) {
+        try {
+            return orderEventRetryService.replay(id)
+                    ? ResponseEntity.accepted().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
 }
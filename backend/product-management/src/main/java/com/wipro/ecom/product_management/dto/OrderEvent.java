@@ -10,7 +10,9 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class OrderEvent {
-    private String eventType; // e.g., "ORDER_PLACED", "ORDER_CANCELLED"
+    private String eventId; // UUID, identical on every redelivery of the same event
+    private Integer orderId;
+    private OrderEventType eventType;
     private List<OrderItemDetail> items;
 
     @Data
@@ -0,0 +1,29 @@
+package com.wipro.ecom.product_management.dto;
+
+/**
+ * Kind of order event. The code is what goes on the wire in the binary encoding, so existing
+ * codes must never change; new types get new codes.
+ */
+public enum OrderEventType {
+    ORDER_PLACED(1),
+    ORDER_CANCELLED(2);
+
+    private final int code;
+
+    OrderEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static OrderEventType fromCode(int code) {
+        for (OrderEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order event type code: " + code);
+    }
+}
@@ -0,0 +1,17 @@
+package com.wipro.ecom.product_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Published to product-changes, keyed by product id, whenever a product is created, updated or deleted
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeEvent {
+    private String changeType; // "UPSERTED" or "DELETED"
+    private Integer productId;
+    private String prodName;
+    private Double price;
+    private long changedAt;
+}
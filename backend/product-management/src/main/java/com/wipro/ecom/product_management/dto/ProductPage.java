@@ -0,0 +1,13 @@
+package com.wipro.ecom.product_management.dto;
+
+import com.wipro.ecom.product_management.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPage {
+    private List<Product> items;
+    private String nextCursor; // null when this is the last page
+}
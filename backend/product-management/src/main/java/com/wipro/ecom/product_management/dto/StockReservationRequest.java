@@ -0,0 +1,22 @@
+package com.wipro.ecom.product_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationRequest {
+    private List<Line> lines;
+    private Integer ttlSeconds; // optional; defaults to stock.reservation.default-ttl-seconds
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Line {
+        private Integer productId;
+        private int quantity;
+    }
+}
@@ -0,0 +1,27 @@
+package com.wipro.ecom.product_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Order events whose stock change has been applied, kept for the dedup window only.
+ * The 16-byte binary key keeps the primary key index small; rows are written in the same
+ * transaction as the stock update and pruned by applied_at.
+ */
+@Data
+@Entity
+@Table(name = "applied_order_events", indexes = {
+        @Index(name = "idx_applied_order_events_applied_at", columnList = "applied_at")
+})
+public class AppliedOrderEvent {
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "event_id", length = 16)
+    private UUID eventId;
+    private Integer orderId;
+    private LocalDateTime appliedAt;
+}
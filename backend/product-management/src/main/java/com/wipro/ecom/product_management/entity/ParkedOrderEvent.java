@@ -0,0 +1,31 @@
+package com.wipro.ecom.product_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * An order event (or the part of one) whose stock change still failed after every retry, or a
+ * record from order-events that could not be decoded at all (then only {@code rawPayload} is set).
+ * It stays here with the failure reason until an admin replays or discards it.
+ */
+@Data
+@Entity
+@Table(name = "parked_order_events")
+public class ParkedOrderEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parked_order_events_id")
+    @SequenceGenerator(name = "parked_order_events_id", sequenceName = "parked_order_events_seq", allocationSize = 50)
+    private Long id;
+    private String eventId;
+    private Integer orderId;
+    private String eventType;
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    // The record value as received, kept for records that could not be decoded
+    @Column(columnDefinition = "BLOB")
+    private byte[] rawPayload;
+    @Column(length = 1000)
+    private String reason;
+    private LocalDateTime parkedAt;
+}
@@ -6,10 +6,16 @@ import java.time.LocalDate;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // InnoDB appends the primary key to every secondary index, so these also serve the (x, id) keyset order
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_cat_price", columnList = "prod_cat, price"),
+        @Index(name = "idx_products_make_price", columnList = "make, price")
+})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id")
+    @SequenceGenerator(name = "products_id", sequenceName = "products_seq", allocationSize = 50)
     private Integer id;
     private String prodName;
     private String prodDesc;
@@ -0,0 +1,40 @@
+package com.wipro.ecom.product_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock held for a pending order. The stock is taken off products.available_qty when the
+ * reservation is created; confirming keeps it taken, releasing (or expiring) gives it back.
+ */
+@Data
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at")
+})
+public class StockReservation {
+
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+
+    @Id
+    private String id;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_lines", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<Line> lines = new ArrayList<>();
+
+    @Data
+    @Embeddable
+    public static class Line {
+        private Integer productId;
+        private int quantity;
+    }
+}
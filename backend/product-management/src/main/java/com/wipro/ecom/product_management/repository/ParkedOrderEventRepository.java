@@ -0,0 +1,12 @@
+package com.wipro.ecom.product_management.repository;
+
+import com.wipro.ecom.product_management.entity.ParkedOrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ParkedOrderEventRepository extends JpaRepository<ParkedOrderEvent, Long> {
+
+    List<ParkedOrderEvent> findAllByOrderByParkedAtAsc();
+}
@@ -1,9 +1,70 @@
 package com.wipro.ecom.product_management.repository;
 
 import com.wipro.ecom.product_management.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
+
+    /**
+     * Applies a stock delta in a single statement, refusing to go below zero.
+     * Returns the number of rows changed: 1 on success, 0 if the product is missing or stock is insufficient.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET available_qty = available_qty + :delta"
+            + " WHERE id = :id AND available_qty + :delta >= 0", nativeQuery = true)
+    int adjustStock(@Param("id") Integer id, @Param("delta") int delta);
+
+    // Keyset (seek) pages: each query continues strictly after the last row of the previous page,
+    // so the cost of a page does not depend on how deep into the catalog it is.
+    // The Pageable only carries the page size; ordering is fixed by the query.
+
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId"
+            + " AND (:prodCat IS NULL OR p.prodCat = :prodCat)"
+            + " AND (:make IS NULL OR p.make = :make)"
+            + " AND (:minPrice IS NULL OR p.price >= :minPrice)"
+            + " AND (:maxPrice IS NULL OR p.price <= :maxPrice)"
+            + " ORDER BY p.id ASC")
+    List<Product> findPageOrderById(@Param("afterId") Integer afterId,
+                                    @Param("prodCat") String prodCat,
+                                    @Param("make") String make,
+                                    @Param("minPrice") Double minPrice,
+                                    @Param("maxPrice") Double maxPrice,
+                                    Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:afterPrice IS NULL OR p.price > :afterPrice"
+            + " OR (p.price = :afterPrice AND p.id > :afterId))"
+            + " AND (:prodCat IS NULL OR p.prodCat = :prodCat)"
+            + " AND (:make IS NULL OR p.make = :make)"
+            + " AND (:minPrice IS NULL OR p.price >= :minPrice)"
+            + " AND (:maxPrice IS NULL OR p.price <= :maxPrice)"
+            + " ORDER BY p.price ASC, p.id ASC")
+    List<Product> findPageOrderByPriceAsc(@Param("afterPrice") Double afterPrice,
+                                          @Param("afterId") Integer afterId,
+                                          @Param("prodCat") String prodCat,
+                                          @Param("make") String make,
+                                          @Param("minPrice") Double minPrice,
+                                          @Param("maxPrice") Double maxPrice,
+                                          Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (:afterPrice IS NULL OR p.price < :afterPrice"
+            + " OR (p.price = :afterPrice AND p.id > :afterId))"
+            + " AND (:prodCat IS NULL OR p.prodCat = :prodCat)"
+            + " AND (:make IS NULL OR p.make = :make)"
+            + " AND (:minPrice IS NULL OR p.price >= :minPrice)"
+            + " AND (:maxPrice IS NULL OR p.price <= :maxPrice)"
+            + " ORDER BY p.price DESC, p.id ASC")
+    List<Product> findPageOrderByPriceDesc(@Param("afterPrice") Double afterPrice,
+                                           @Param("afterId") Integer afterId,
+                                           @Param("prodCat") String prodCat,
+                                           @Param("make") String make,
+                                           @Param("minPrice") Double minPrice,
+                                           @Param("maxPrice") Double maxPrice,
+                                           Pageable pageable);
 }
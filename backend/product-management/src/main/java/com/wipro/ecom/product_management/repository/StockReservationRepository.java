@@ -0,0 +1,23 @@
+package com.wipro.ecom.product_management.repository;
+
+import com.wipro.ecom.product_management.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    // Conditional status change: only one of confirm, release or expiry can win for a given reservation
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") String id, @Param("from") String from, @Param("to") String to);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = 'HELD' AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,138 @@
+package com.wipro.ecom.product_management.service;
+
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dedup log for order events. {@link #claim(List)} drops events that were already applied and records
+ * the rest in the caller's transaction, so an event's id is stored if and only if its stock change
+ * commits. A redelivered event is therefore skipped, and two consumers racing on the same event
+ * collide on the primary key instead of both applying it.
+ */
+@Service
+public class AppliedEventLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO applied_order_events (event_id, order_id, applied_at) VALUES (?, ?, ?)";
+    private static final String PRUNE_SQL =
+            "DELETE FROM applied_order_events WHERE applied_at < ? LIMIT ?";
+    private static final int LOOKUP_CHUNK = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Must be longer than any redelivery can lag behind the first delivery
+    @Value("${order-events.dedup.window:7d}")
+    private Duration window;
+
+    @Value("${order-events.dedup.prune-batch-size:10000}")
+    private int pruneBatchSize;
+
+    private final Counter duplicates;
+
+    public AppliedEventLog(MeterRegistry meterRegistry) {
+        this.duplicates = meterRegistry.counter("order.events.duplicates");
+    }
+
+    /**
+     * Returns the events that have not been applied yet and records them as applied. Events without
+     * an id (sent before ids existed) are always returned and never recorded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OrderEvent> claim(List<OrderEvent> events) {
+        List<UUID> ids = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            UUID id = eventId(event);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        Set<UUID> seen = alreadyApplied(ids);
+
+        List<OrderEvent> fresh = new ArrayList<>(events.size());
+        List<Object[]> inserts = new ArrayList<>(ids.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (OrderEvent event : events) {
+            UUID id = eventId(event);
+            if (id == null) {
+                fresh.add(event);
+            } else if (seen.add(id)) {
+                // seen also catches the same event twice within one batch
+                fresh.add(event);
+                inserts.add(new Object[] {toBytes(id), event.getOrderId(), now});
+            } else {
+                duplicates.increment();
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        return fresh;
+    }
+
+    @Scheduled(fixedDelayString = "${order-events.dedup.prune-interval-ms:600000}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(window));
+        int deleted;
+        do {
+            // Small auto-committed deletes, so pruning never holds locks the consumer needs for long
+            deleted = jdbcTemplate.update(PRUNE_SQL, cutoff, pruneBatchSize);
+        } while (deleted == pruneBatchSize);
+    }
+
+    private Set<UUID> alreadyApplied(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<UUID> applied = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK));
+            String sql = "SELECT event_id FROM applied_order_events WHERE event_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            Object[] args = chunk.stream().map(AppliedEventLog::toBytes).toArray();
+            applied.addAll(jdbcTemplate.query(sql, (rs, rowNum) -> fromBytes(rs.getBytes(1)), args));
+        }
+        return applied;
+    }
+
+    private static UUID eventId(OrderEvent event) {
+        if (event.getEventId() == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(event.getEventId());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring malformed order event id: " + event.getEventId());
+            return null;
+        }
+    }
+
+    // Same big-endian layout Hibernate uses for a UUID mapped to BINARY(16)
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,9 +1,23 @@
 package com.wipro.ecom.product_management.service;
 
+import com.wipro.ecom.product_management.config.KafkaConsumerConfig;
 import com.wipro.ecom.product_management.dto.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class KafkaConsumerService {
@@ -11,21 +25,79 @@ public class KafkaConsumerService {
     @Autowired
     private ProductService productService;
 
-    @KafkaListener(topics = "order-events", groupId = "product-group")
-    public void consumeOrderEvent(OrderEvent event) {
-        System.out.println("Received order event: " + event.getEventType());
+    @Autowired
+    private OrderEventRetryService orderEventRetryService;
+
+    private final Counter eventsConsumed;
+    private final DistributionSummary batchSizes;
+    private final Timer eventLag;
+    private final Timer batchApply;
+    private final Counter eventsRejected;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, PartitionMeters> partitionMeters = new ConcurrentHashMap<>();
 
-        event.getItems().forEach(item -> {
-            int quantityChange = 0;
-            if ("ORDER_PLACED".equals(event.getEventType())) {
-                quantityChange = -item.getQuantity(); // Decrease stock
-            } else if ("ORDER_CANCELLED".equals(event.getEventType())) {
-                quantityChange = item.getQuantity(); // Increase stock
-            }
-            
-            if (quantityChange != 0) {
-                productService.updateStock(item.getProductId(), quantityChange);
+    // Throughput and lag per partition, to spot a hot product key or a partition that falls behind
+    private record PartitionMeters(Counter consumed, Timer lag) {
+    }
+
+    public KafkaConsumerService(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.eventsConsumed = meterRegistry.counter("order.events.consumed");
+        this.batchSizes = meterRegistry.summary("order.events.batch.size");
+        this.eventLag = meterRegistry.timer("order.events.lag");
+        this.batchApply = meterRegistry.timer("order.events.batch.apply");
+        this.eventsRejected = meterRegistry.counter("order.events.rejected");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @KafkaListener(topics = KafkaConsumerConfig.ORDER_EVENTS_TOPIC, groupId = "product-group",
+                   containerFactory = KafkaConsumerConfig.ORDER_EVENT_BATCH_FACTORY)
+    public void consumeOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        System.out.println("Received order event batch: " + records.size());
+
+        List<OrderEvent> events = new ArrayList<>(records.size());
+        // A null value means the ErrorHandlingDeserializer could not decode the record
+        List<ConsumerRecord<String, OrderEvent>> undecodable = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            Duration lag = Duration.ofMillis(Math.max(0, now - record.timestamp()));
+            eventLag.record(lag);
+            PartitionMeters partition = partitionMeters(record.partition());
+            partition.consumed().increment();
+            partition.lag().record(lag);
+            OrderEvent event = record.value();
+            if (event == null) {
+                undecodable.add(record);
+            } else if (event.getItems() != null) {
+                events.add(event);
             }
-        });
+        }
+
+        // Redelivered events are skipped inside the same transaction that applies the rest, so a batch
+        // replayed after a rebalance or a failed commit never changes stock twice. Rejected parts move
+        // to the retry topic, and undecodable records to the parking table, before the transaction commits
+        // instead of blocking this partition.
+        // Throws on failure, so the container does not commit the batch's offsets.
+        List<OrderEvent> rejected = batchApply.record(() -> transactionTemplate.execute(status -> {
+            undecodable.forEach(orderEventRetryService::parkUndecodable);
+            List<OrderEvent> parts = productService.applyOrderEvents(events);
+            orderEventRetryService.forward(parts);
+            return parts;
+        }));
+        if (!rejected.isEmpty()) {
+            eventsRejected.increment(rejected.size());
+            System.err.println("Stock change rejected (missing product or not enough stock) for "
+                    + rejected.size() + " event(s); sent to " + OrderEventRetryService.RETRY_TOPIC);
+        }
+
+        eventsConsumed.increment(records.size());
+        batchSizes.record(records.size());
+    }
+
+    private PartitionMeters partitionMeters(int partition) {
+        return partitionMeters.computeIfAbsent(partition, p -> new PartitionMeters(
+                meterRegistry.counter("order.events.partition.consumed", "partition", String.valueOf(p)),
+                meterRegistry.timer("order.events.partition.lag", "partition", String.valueOf(p))));
     }
 }
@@ -0,0 +1,237 @@
+package com.wipro.ecom.product_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.product_management.config.KafkaConsumerConfig;
+import com.wipro.ecom.product_management.config.KafkaProducerConfig;
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import com.wipro.ecom.product_management.entity.ParkedOrderEvent;
+import com.wipro.ecom.product_management.repository.ParkedOrderEventRepository;
+import com.wipro.ecom.product_management.util.OrderEventDeserializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Retry path for order events whose stock change was rejected. Rejected parts leave the main
+ * order-events batch and go to order-events-retry, then through delay topics of increasing length,
+ * so one bad event never holds up the partition it came from. What still fails after the last
+ * attempt lands on order-events-retry-dlt and is parked in the database with the failure reason
+ * until an admin replays it.
+ */
+@Service
+public class OrderEventRetryService {
+
+    public static final String RETRY_TOPIC = "order-events-retry";
+
+    private static final LogAccessor log = new LogAccessor(OrderEventRetryService.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ParkedOrderEventRepository parkedOrderEventRepository;
+
+    @Autowired
+    @Qualifier(KafkaProducerConfig.ORDER_EVENT_TEMPLATE)
+    private KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order-events.retry.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter parked;
+    private final Counter undecodable;
+
+    public OrderEventRetryService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parked = meterRegistry.counter("order.events.parked");
+        this.undecodable = meterRegistry.counter("order.events.undecodable");
+    }
+
+    /**
+     * Sends rejected event parts to the retry topic and waits until all are acknowledged. Called
+     * inside the consumer's transaction, so the batch only commits once its failures are safe on
+     * the retry topic; if the send fails the batch is redelivered and forwarded again.
+     */
+    public void forward(List<OrderEvent> parts) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(parts.size());
+        for (OrderEvent part : parts) {
+            sends.add(orderEventKafkaTemplate.send(RETRY_TOPIC, key(part), part));
+        }
+        for (CompletableFuture<?> send : sends) {
+            await(send);
+        }
+    }
+
+    /**
+     * Parks order-events records whose value could not be decoded (an encoding version this build does
+     * not know yet, or a corrupt payload), keeping the raw bytes so they can be replayed once a build
+     * that reads them is deployed. Called inside the consumer's transaction, so the batch's offsets are
+     * only committed once these records are stored.
+     */
+    public void parkUndecodable(ConsumerRecord<String, OrderEvent> record) {
+        DeserializationException error = SerializationUtils.getExceptionFromHeader(record,
+                SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, log);
+        ParkedOrderEvent row = new ParkedOrderEvent();
+        row.setRawPayload(error == null ? null : error.getData());
+        String reason = error == null ? "Empty record value" : "Could not decode: " + error.getMessage();
+        row.setReason(truncate(reason + " (" + record.topic() + "-" + record.partition() + "@" + record.offset() + ")", 1000));
+        row.setParkedAt(LocalDateTime.now());
+        parkedOrderEventRepository.save(row);
+        undecodable.increment();
+        log.error(() -> "Parked undecodable order event at " + record.topic() + "-" + record.partition()
+                + "@" + record.offset() + ": " + reason);
+    }
+
+    @RetryableTopic(attempts = "${order-events.retry.attempts:4}",
+                    backoff = @Backoff(delayExpression = "${order-events.retry.initial-delay-ms:5000}",
+                                       multiplierExpression = "${order-events.retry.multiplier:6}",
+                                       maxDelayExpression = "${order-events.retry.max-delay-ms:600000}"),
+                    retryTopicSuffix = "", dltTopicSuffix = "-dlt",
+                    kafkaTemplate = KafkaProducerConfig.ORDER_EVENT_TEMPLATE,
+                    listenerContainerFactory = KafkaConsumerConfig.ORDER_EVENT_RETRY_FACTORY)
+    @KafkaListener(topics = RETRY_TOPIC, groupId = "product-group-retry",
+                   containerFactory = KafkaConsumerConfig.ORDER_EVENT_RETRY_FACTORY)
+    public void retry(OrderEvent event) {
+        // All or nothing per event: a rejected item rolls back the others and the dedup record
+        transactionTemplate.executeWithoutResult(status -> {
+            List<OrderEvent> rejected = productService.applyOrderEvents(List.of(event));
+            if (!rejected.isEmpty()) {
+                List<Integer> productIds = rejected.get(0).getItems().stream()
+                        .map(OrderEvent.OrderItemDetail::getProductId).toList();
+                throw new IllegalStateException("Product missing or not enough stock for product ids: " + productIds);
+            }
+        });
+    }
+
+    @DltHandler
+    public void park(ConsumerRecord<String, OrderEvent> record) {
+        OrderEvent event = record.value();
+        ParkedOrderEvent row = new ParkedOrderEvent();
+        if (event != null) {
+            row.setEventId(event.getEventId());
+            row.setOrderId(event.getOrderId());
+            row.setEventType(event.getEventType() == null ? null : event.getEventType().name());
+            row.setPayload(toJson(event));
+        }
+        row.setReason(truncate(header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE), 1000));
+        row.setParkedAt(LocalDateTime.now());
+        parkedOrderEventRepository.save(row);
+        parked.increment();
+        System.err.println("Parked order event " + row.getEventId() + " for order " + row.getOrderId() + ": " + row.getReason());
+    }
+
+    public List<ParkedOrderEvent> getParkedEvents() {
+        return parkedOrderEventRepository.findAllByOrderByParkedAtAsc();
+    }
+
+    /**
+     * Sends a parked event back through the retry path and removes it from the parking table.
+     * Returns false if there is no parked event with that id.
+     */
+    @Transactional
+    public boolean replay(Long id) {
+        Optional<ParkedOrderEvent> row = parkedOrderEventRepository.findById(id);
+        if (row.isEmpty()) {
+            return false;
+        }
+        OrderEvent event;
+        if (row.get().getPayload() != null) {
+            event = fromJson(row.get().getPayload());
+        } else if (row.get().getRawPayload() != null) {
+            event = decode(row.get().getRawPayload(), id);
+        } else {
+            throw new IllegalStateException("Parked event " + id + " has no readable payload and cannot be replayed");
+        }
+        await(orderEventKafkaTemplate.send(RETRY_TOPIC, key(event), event));
+        parkedOrderEventRepository.delete(row.get());
+        return true;
+    }
+
+    private static OrderEvent decode(byte[] raw, Long id) {
+        try (OrderEventDeserializer deserializer = new OrderEventDeserializer()) {
+            OrderEvent event = deserializer.deserialize(RETRY_TOPIC, raw);
+            if (event == null) {
+                throw new IllegalStateException("Parked event " + id + " is empty and cannot be replayed");
+            }
+            return event;
+        } catch (SerializationException e) {
+            throw new IllegalStateException("Parked event " + id + " still cannot be decoded: " + e.getMessage());
+        }
+    }
+
+    // Same key as on order-events: order events arrive split per product, so a part holds one product
+    private static String key(OrderEvent event) {
+        return event.getItems() == null || event.getItems().isEmpty()
+                ? null
+                : String.valueOf(event.getItems().get(0).getProductId());
+    }
+
+    private void await(CompletableFuture<?> send) {
+        try {
+            send.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending to " + RETRY_TOPIC, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not send to " + RETRY_TOPIC, e);
+        }
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event", e);
+        }
+    }
+
+    private OrderEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not deserialize order event", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.wipro.ecom.product_management.service;
+
+import com.wipro.ecom.product_management.dto.ProductChangeEvent;
+import com.wipro.ecom.product_management.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes product changes to the product-changes topic. Events are keyed by product id, so every
+ * change to one product lands on the same partition in order and a compacted topic keeps the latest
+ * state of each product. Inside a transaction the event is sent only after it commits.
+ */
+@Service
+public class ProductChangePublisher {
+
+    public static final String TOPIC = "product-changes";
+
+    @Autowired
+    private KafkaTemplate<String, ProductChangeEvent> productChangeKafkaTemplate;
+
+    public void upserted(Product product) {
+        publish(new ProductChangeEvent("UPSERTED", product.getId(), product.getProdName(),
+                product.getPrice(), System.currentTimeMillis()));
+    }
+
+    public void deleted(Integer productId) {
+        publish(new ProductChangeEvent("DELETED", productId, null, null, System.currentTimeMillis()));
+    }
+
+    private void publish(ProductChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(ProductChangeEvent event) {
+        productChangeKafkaTemplate.send(TOPIC, String.valueOf(event.getProductId()), event)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        System.err.println("Could not publish change for product " + event.getProductId() + ": " + e.getMessage());
+                    }
+                });
+    }
+}
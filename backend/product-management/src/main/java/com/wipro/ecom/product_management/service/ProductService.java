@@ -1,30 +1,165 @@
 package com.wipro.ecom.product_management.service;
 
+import com.wipro.ecom.product_management.config.CacheConfig;
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import com.wipro.ecom.product_management.dto.ProductPage;
 import com.wipro.ecom.product_management.entity.Product;
 import com.wipro.ecom.product_management.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 
 @Service
 public class ProductService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE products SET available_qty = available_qty + ? WHERE id = ? AND available_qty + ? >= 0";
+
     @Autowired
     private ProductRepository productRepository;
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductChangePublisher productChangePublisher;
+
+    @Autowired
+    private AppliedEventLog appliedEventLog;
+
+    /**
+     * Returns one keyset page of products. {@code cursor} is the opaque token returned as
+     * {@code nextCursor} by the previous page (null for the first page); {@code sort} is one of
+     * {@code id}, {@code price_asc} or {@code price_desc} and must stay the same across pages.
+     *
+     * First pages are cached per filter combination: they are what every catalogue visit reads,
+     * while deeper pages are spread over too many cursors to be worth keeping.
+     */
+    @Cacheable(value = CacheConfig.PRODUCT_PAGES, key = "{#size, #prodCat, #make, #minPrice, #maxPrice, #sort}",
+               condition = "#cursor == null || #cursor.isBlank()", sync = true)
+    public ProductPage getProductPage(String cursor, Integer size, String prodCat, String make,
+                                      Double minPrice, Double maxPrice, String sort) {
+        String sortKey = sort == null ? "id" : sort;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells us whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        Double afterPrice = null;
+        Integer afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            if (!parts[0].equals(sortKey)) {
+                throw new IllegalArgumentException("Cursor was issued for sort '" + parts[0] + "', not '" + sortKey + "'");
+            }
+            try {
+                if ("id".equals(sortKey)) {
+                    afterId = Integer.valueOf(parts[1]);
+                } else {
+                    afterPrice = Double.valueOf(parts[1]);
+                    afterId = Integer.valueOf(parts[2]);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+        }
+
+        List<Product> rows = switch (sortKey) {
+            case "id" -> productRepository.findPageOrderById(afterId, prodCat, make, minPrice, maxPrice, limit);
+            case "price_asc" -> productRepository.findPageOrderByPriceAsc(afterPrice, afterId, prodCat, make, minPrice, maxPrice, limit);
+            case "price_desc" -> productRepository.findPageOrderByPriceDesc(afterPrice, afterId, prodCat, make, minPrice, maxPrice, limit);
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sortKey);
+        };
+
+        if (rows.size() <= pageSize) {
+            return new ProductPage(List.copyOf(rows), null);
+        }
+        List<Product> page = rows.subList(0, pageSize);
+        Product last = page.get(pageSize - 1);
+        String next = "id".equals(sortKey)
+                ? encodeCursor(sortKey + ":" + last.getId())
+                : encodeCursor(sortKey + ":" + last.getPrice() + ":" + last.getId());
+        return new ProductPage(List.copyOf(page), next);
+    }
+
+    private static String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
     }
 
+    // sync = true collapses concurrent misses for the same id into a single repository load
+    @Cacheable(value = CacheConfig.PRODUCTS, key = "#id", sync = true)
     public Optional<Product> getProductById(Integer id) {
         return productRepository.findById(id);
     }
 
+    // Serves cached products from the cache and loads the rest with one query
+    public List<Product> getProductsByIds(List<Integer> ids) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        List<Product> result = new ArrayList<>(ids.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Cache.ValueWrapper cached = products == null ? null : products.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else if (cached.get() != null) {
+                result.add((Product) cached.get());
+            }
+        }
+        for (Product product : productRepository.findAllById(missing)) {
+            if (products != null) {
+                products.put(product.getId(), product);
+            }
+            result.add(product);
+        }
+        return result;
+    }
+
+    @Caching(put = @CachePut(value = CacheConfig.PRODUCTS, key = "#result.id"),
+             evict = @CacheEvict(value = CacheConfig.PRODUCT_PAGES, allEntries = true))
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productChangePublisher.upserted(saved);
+        return saved;
     }
 
+    @Caching(put = @CachePut(value = CacheConfig.PRODUCTS, key = "#id"),
+             evict = @CacheEvict(value = CacheConfig.PRODUCT_PAGES, allEntries = true))
     public Product updateProduct(Integer id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -37,24 +172,141 @@ public class ProductService {
         product.setUom(productDetails.getUom());
         product.setImageURL(productDetails.getImageURL());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productChangePublisher.upserted(saved);
+        return saved;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(value = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     public void deleteProduct(Integer id) {
         productRepository.deleteById(id);
+        productChangePublisher.deleted(id);
     }
 
-    // This method is for internal service-to-service communication
+    // This method is for internal service-to-service communication.
+    // The stock check and the write are one conditional UPDATE, so concurrent orders for the
+    // same product never lose updates and the row lock is held only for that statement.
     @Transactional
-    public Product updateStock(Integer productId, int quantityChange) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-        
-        int newQuantity = product.getAvailableQty() + quantityChange;
-        if (newQuantity < 0) {
-            throw new RuntimeException("Not enough stock available for product id: " + productId);
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.PRODUCTS, key = "#productId"),
+            @CacheEvict(value = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
+    public void updateStock(Integer productId, int quantityChange) {
+        if (productRepository.adjustStock(productId, quantityChange) == 1) {
+            return;
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+        throw new RuntimeException("Not enough stock available for product id: " + productId);
+    }
+
+    /**
+     * Applies a batch of order events exactly once: events already applied are skipped, the ids of
+     * the rest are recorded, and their stock changes are applied, all in one transaction.
+     *
+     * Products whose netted delta is rejected are retried one event at a time, so an order that fits
+     * is still applied when others in the same batch do not. Returns the parts of the events that
+     * could not be applied (the items for products that are missing or short of stock), one event per
+     * original event. Each part gets an id derived from
+     * the original event id and its products, so forwarding the same part twice is still deduplicated.
+     */
+    @Transactional
+    public List<OrderEvent> applyOrderEvents(List<OrderEvent> events) {
+        List<OrderEvent> fresh = appliedEventLog.claim(events);
+
+        // Net the events down to one delta per product. A TreeMap keeps the UPDATEs in id order
+        // so concurrent consumers always lock rows in the same order.
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        for (OrderEvent event : fresh) {
+            int sign = stockSign(event);
+            if (sign == 0) {
+                continue;
+            }
+            event.getItems().forEach(item ->
+                    deltas.merge(item.getProductId(), sign * item.getQuantity(), Integer::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        Set<Integer> rejectedNet = new HashSet<>(applyStockDeltas(deltas));
+        if (rejectedNet.isEmpty()) {
+            return List.of();
+        }
+
+        // A rejected net delta says nothing about the individual orders behind it: replay those
+        // products event by event, in arrival order, so only the items that really do not fit are rejected
+        List<OrderEvent> rejectedParts = new ArrayList<>();
+        for (OrderEvent event : fresh) {
+            int sign = stockSign(event);
+            if (sign == 0) {
+                continue;
+            }
+            Map<Integer, Integer> eventDeltas = new TreeMap<>();
+            event.getItems().stream()
+                    .filter(item -> rejectedNet.contains(item.getProductId()))
+                    .forEach(item -> eventDeltas.merge(item.getProductId(), sign * item.getQuantity(), Integer::sum));
+            eventDeltas.values().removeIf(delta -> delta == 0);
+            Set<Integer> rejected = new HashSet<>(applyStockDeltas(eventDeltas));
+            List<OrderEvent.OrderItemDetail> items = event.getItems().stream()
+                    .filter(item -> rejected.contains(item.getProductId()))
+                    .toList();
+            if (!items.isEmpty()) {
+                rejectedParts.add(new OrderEvent(partId(event.getEventId(), items), event.getOrderId(),
+                        event.getEventType(), items));
+            }
+        }
+        return rejectedParts;
+    }
+
+    private static int stockSign(OrderEvent event) {
+        if (event.getEventType() == null) {
+            return 0;
+        }
+        return switch (event.getEventType()) {
+            case ORDER_PLACED -> -1; // Decrease stock
+            case ORDER_CANCELLED -> 1; // Increase stock
+        };
+    }
+
+    private static String partId(String eventId, List<OrderEvent.OrderItemDetail> items) {
+        if (eventId == null) {
+            return null;
+        }
+        String products = items.stream().map(item -> String.valueOf(item.getProductId())).sorted().toList().toString();
+        return UUID.nameUUIDFromBytes((eventId + products).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Applies many per-product stock deltas as one JDBC batch in a single transaction.
+     * Each statement is the same conditional UPDATE as {@link #updateStock}; products whose delta
+     * could not be applied (missing, or not enough stock) are left unchanged and returned.
+     */
+    @Transactional
+    public List<Integer> applyStockDeltas(Map<Integer, Integer> deltas) {
+        List<Integer> rejected = new ArrayList<>();
+        if (deltas.isEmpty()) {
+            return rejected;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        List<Integer> ids = new ArrayList<>(deltas.keySet());
+        deltas.forEach((id, delta) -> args.add(new Object[] {delta, id, delta}));
+
+        int[] counts = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, args);
+
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rejected.add(ids.get(i));
+            } else if (products != null) {
+                products.evict(ids.get(i));
+            }
+        }
+        Cache productPages = cacheManager.getCache(CacheConfig.PRODUCT_PAGES);
+        if (productPages != null) {
+            productPages.clear();
         }
-        product.setAvailableQty(newQuantity);
-        return productRepository.save(product);
+        return rejected;
     }
 }
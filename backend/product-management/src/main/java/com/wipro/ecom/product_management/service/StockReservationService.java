@@ -0,0 +1,121 @@
+package com.wipro.ecom.product_management.service;
+
+import com.wipro.ecom.product_management.dto.StockReservationRequest;
+import com.wipro.ecom.product_management.entity.StockReservation;
+import com.wipro.ecom.product_management.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+public class StockReservationService {
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StockReservationService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Value("${stock.reservation.default-ttl-seconds:300}")
+    private int defaultTtlSeconds;
+
+    @Value("${stock.reservation.max-ttl-seconds:1800}")
+    private int maxTtlSeconds;
+
+    @Value("${stock.reservation.expiry-batch-size:100}")
+    private int expiryBatchSize;
+
+    /**
+     * Reserves every line or none: all stock changes go out as one JDBC batch and the whole
+     * transaction rolls back if any product is missing or short.
+     */
+    @Transactional
+    public StockReservation reserve(StockReservationRequest request) {
+        if (request.getLines() == null || request.getLines().isEmpty()) {
+            throw new IllegalArgumentException("A reservation needs at least one line");
+        }
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (StockReservationRequest.Line line : request.getLines()) {
+            if (line.getProductId() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each line needs a productId and a positive quantity");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+        List<Integer> rejected = productService.applyStockDeltas(deltas);
+        if (!rejected.isEmpty()) {
+            throw new IllegalStateException("Not enough stock available for product ids: " + rejected);
+        }
+
+        int ttl = request.getTtlSeconds() == null ? defaultTtlSeconds
+                : Math.max(1, Math.min(request.getTtlSeconds(), maxTtlSeconds));
+        StockReservation reservation = new StockReservation();
+        reservation.setId(UUID.randomUUID().toString());
+        reservation.setStatus(StockReservation.HELD);
+        reservation.setCreatedAt(LocalDateTime.now());
+        reservation.setExpiresAt(reservation.getCreatedAt().plusSeconds(ttl));
+        quantities.forEach((productId, quantity) -> {
+            StockReservation.Line line = new StockReservation.Line();
+            line.setProductId(productId);
+            line.setQuantity(quantity);
+            reservation.getLines().add(line);
+        });
+        return reservationRepository.save(reservation);
+    }
+
+    public Optional<StockReservation> getReservation(String id) {
+        return reservationRepository.findById(id);
+    }
+
+    // The stock was already taken at reserve time; confirming just stops it from expiring
+    @Transactional
+    public boolean confirm(String id) {
+        return reservationRepository.transition(id, StockReservation.HELD, StockReservation.CONFIRMED) == 1;
+    }
+
+    @Transactional
+    public boolean release(String id) {
+        if (reservationRepository.transition(id, StockReservation.HELD, StockReservation.RELEASED) != 1) {
+            return false;
+        }
+        StockReservation reservation = reservationRepository.findById(id).orElseThrow();
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        reservation.getLines().forEach(line -> deltas.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        productService.applyStockDeltas(deltas);
+        return true;
+    }
+
+    // Gives back the stock of reservations that were neither confirmed nor released in time
+    @Scheduled(fixedDelayString = "${stock.reservation.expiry-interval-ms:10000}")
+    public void releaseExpired() {
+        List<String> expired = reservationRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, expiryBatchSize));
+        for (String id : expired) {
+            try {
+                // One transaction per reservation so a single failure does not undo the others
+                transactionTemplate.executeWithoutResult(status -> release(id));
+            } catch (RuntimeException e) {
+                System.err.println("Could not release expired reservation " + id + ": " + e.getMessage());
+            }
+        }
+    }
+}
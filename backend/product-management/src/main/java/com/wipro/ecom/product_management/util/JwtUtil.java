@@ -1,29 +1,17 @@
 package com.wipro.ecom.product_management.util;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Date;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-    
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    @Autowired
+    private VerifiedClaimsCache verifiedClaimsCache;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -34,37 +22,29 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         try {
-            // Use the same key format and explicitly specify the algorithm
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return verifiedClaimsCache.verify(token);
         } catch (Exception e) {
             System.err.println("Error parsing JWT token: " + e.getMessage());
             throw e;
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractClaim(token, Claims::getExpiration).before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
-        }
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
     
     public Boolean validateToken(String token) {
         try {
-            // Check if we can parse the token at all
-            extractAllClaims(token);
-            // Then check if it's expired
-            return !isTokenExpired(token);
+            return validateToken(extractAllClaims(token));
         } catch (Exception e) {
             System.err.println("Token validation failed: " + e.getMessage());
             return false;
         }
     }
+
+    public Boolean validateToken(Claims claims) {
+        return !isTokenExpired(claims);
+    }
 }
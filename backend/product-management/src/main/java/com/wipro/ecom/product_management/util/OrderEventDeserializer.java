@@ -0,0 +1,80 @@
+package com.wipro.ecom.product_management.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import com.wipro.ecom.product_management.dto.OrderEventType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads order events written by {@link OrderEventSerializer}. Records that start with '{' are
+ * JSON from producers that predate the binary encoding and are read with Jackson instead.
+ */
+public class OrderEventDeserializer implements Deserializer<OrderEvent> {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (data[0] == '{') {
+            try {
+                return objectMapper.readValue(data, OrderEvent.class);
+            } catch (IOException e) {
+                throw new SerializationException("Malformed JSON order event on " + topic, e);
+            }
+        }
+        if (data[0] != OrderEventSerializer.VERSION) {
+            throw new SerializationException("Unsupported order event encoding version " + data[0] + " on " + topic);
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data, 1, data.length - 1);
+            OrderEvent event = new OrderEvent();
+            event.setEventType(OrderEventType.fromCode(in.get()));
+            if (in.get() != 0) {
+                event.setEventId(new UUID(in.getLong(), in.getLong()).toString());
+            }
+            long orderId = readVarint(in);
+            event.setOrderId(orderId == 0 ? null : (int) (orderId - 1));
+            long count = readVarint(in);
+            // Every item takes at least two bytes: a corrupt count must not size the list
+            if (count < 0 || count > in.remaining() / 2) {
+                throw new IllegalArgumentException("Item count " + count + " exceeds the remaining " + in.remaining() + " bytes");
+            }
+            List<OrderEvent.OrderItemDetail> items = new ArrayList<>((int) count);
+            for (int i = 0; i < count; i++) {
+                long productId = readVarint(in);
+                int zigzag = (int) readVarint(in);
+                int quantity = (zigzag >>> 1) ^ -(zigzag & 1);
+                items.add(new OrderEvent.OrderItemDetail(productId == 0 ? null : (int) (productId - 1), quantity));
+            }
+            event.setItems(items);
+            return event;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Malformed binary order event on " + topic, e);
+        }
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+}
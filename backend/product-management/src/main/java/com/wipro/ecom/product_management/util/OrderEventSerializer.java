@@ -0,0 +1,74 @@
+package com.wipro.ecom.product_management.util;
+
+import com.wipro.ecom.product_management.dto.OrderEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link OrderEvent} for the order-events topics. Version 1 layout:
+ *
+ * <pre>
+ * version      1 byte   (1)
+ * eventType    1 byte   OrderEventType code
+ * eventId      1 byte presence flag, then 16 bytes (UUID, big-endian) when present
+ * orderId      varint   orderId + 1, 0 when absent
+ * itemCount    varint
+ * item         productId varint (productId + 1, 0 when absent), quantity zigzag varint
+ * </pre>
+ *
+ * Varints are unsigned LEB128. The same format is read by {@link OrderEventDeserializer}, which also
+ * still accepts the JSON written before this encoding existed. A change to the layout needs a new
+ * version byte, and consumers must be able to read it before producers start writing it.
+ */
+public class OrderEventSerializer implements Serializer<OrderEvent> {
+
+    public static final byte VERSION = 1;
+
+    @Override
+    public byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) {
+            return null;
+        }
+        List<OrderEvent.OrderItemDetail> items = event.getItems() == null ? List.of() : event.getItems();
+        // Upper bound: fixed header, two 5-byte varints, then two 5-byte varints per item
+        byte[] buffer = new byte[29 + items.size() * 10];
+        int pos = 0;
+        buffer[pos++] = VERSION;
+        buffer[pos++] = (byte) event.getEventType().getCode();
+        if (event.getEventId() == null) {
+            buffer[pos++] = 0;
+        } else {
+            buffer[pos++] = 1;
+            UUID id = UUID.fromString(event.getEventId());
+            pos = writeLong(buffer, pos, id.getMostSignificantBits());
+            pos = writeLong(buffer, pos, id.getLeastSignificantBits());
+        }
+        pos = writeVarint(buffer, pos, event.getOrderId() == null ? 0 : event.getOrderId() + 1L);
+        pos = writeVarint(buffer, pos, items.size());
+        for (OrderEvent.OrderItemDetail item : items) {
+            pos = writeVarint(buffer, pos, item.getProductId() == null ? 0 : item.getProductId() + 1L);
+            int quantity = item.getQuantity();
+            pos = writeVarint(buffer, pos, ((quantity << 1) ^ (quantity >> 31)) & 0xFFFFFFFFL);
+        }
+        return Arrays.copyOf(buffer, pos);
+    }
+
+    private static int writeLong(byte[] buffer, int pos, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static int writeVarint(byte[] buffer, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+}
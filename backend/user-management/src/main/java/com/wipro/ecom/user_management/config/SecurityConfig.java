@@ -1,15 +1,24 @@
 package com.wipro.ecom.user_management.config;
 
+import com.wipro.ecom.user_management.util.PooledPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -26,12 +35,30 @@ import java.util.List;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    // Raising the strength makes every successful login re-hash a weaker stored hash to the new cost
+    @Value("${password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${password.hashing.queue-capacity:200}")
+    private int hashingQueueCapacity;
+
+    @Value("${password.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // Leave a core for the request threads unless a size is configured
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads,
+                hashingQueueCapacity, hashingTimeoutMs, meterRegistry);
     }
 
     @Bean
@@ -39,6 +66,23 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /*
+     * DaoAuthenticationProvider hashes the dummy password it checks unknown users against on first use,
+     * inside the lookup where a pool rejection would surface as an internal error. An unknown-user login
+     * at startup does that hash before any real login arrives.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void primeAuthentication(ApplicationReadyEvent event) {
+        AuthenticationManager authenticationManager = event.getApplicationContext().getBean(AuthenticationManager.class);
+        try {
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("startup-priming-check", ""));
+        } catch (AuthenticationException e) {
+            // Expected: the user does not exist
+        } catch (RuntimeException e) {
+            log.warn("Could not prime authentication at startup", e);
+        }
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -67,6 +111,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:4200"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        // Let the admin console read the keyset pagination cursor on the user list
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
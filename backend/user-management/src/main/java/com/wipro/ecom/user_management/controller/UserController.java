@@ -2,9 +2,15 @@ package com.wipro.ecom.user_management.controller;
 
 import com.wipro.ecom.user_management.dto.LoginRequest;
 import com.wipro.ecom.user_management.dto.LoginResponse;
+import com.wipro.ecom.user_management.dto.UserImportReport;
+import com.wipro.ecom.user_management.dto.UserPage;
+import com.wipro.ecom.user_management.dto.UserSummary;
 import com.wipro.ecom.user_management.entity.User;
 import com.wipro.ecom.user_management.repository.UserRepository;
+import com.wipro.ecom.user_management.service.UserCache;
+import com.wipro.ecom.user_management.service.UserImportService;
 import com.wipro.ecom.user_management.service.UserService;
+import com.wipro.ecom.user_management.service.UsernameFilter;
 import com.wipro.ecom.user_management.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,19 +18,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/user")
 @Tag(name = "User Management", description = "APIs for all user-related operations including registration, login, and administration")
 public class UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private AuthenticationManager authenticationManager;
     @Autowired
@@ -33,19 +47,28 @@ public class UserController {
     private JwtUtil jwtUtil;
     @Autowired
     private UserService userService;
+    @Autowired
+    private UsernameFilter usernameFilter;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private UserImportService userImportService;
 
     // --- Authentication and Registration Endpoints ---
 
     @Operation(summary = "Register a new customer account")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User registered successfully"),
-            @ApiResponse(responseCode = "400", description = "Registration failed due to invalid data (e.g., username already exists)")
+            @ApiResponse(responseCode = "400", description = "Registration failed due to invalid data (e.g., username already exists)"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is at capacity; retry shortly")
     })
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
         try {
             User registeredUser = userService.registerNewUser(user);
             return new ResponseEntity<>(registeredUser, HttpStatus.CREATED);
+        } catch (RejectedExecutionException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             return new ResponseEntity<>("Registration failed: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -54,15 +77,29 @@ public class UserController {
     @Operation(summary = "Authenticate a user and receive a JWT token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Authentication successful"),
-            @ApiResponse(responseCode = "403", description = "Invalid credentials")
+            @ApiResponse(responseCode = "403", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is at capacity; retry shortly")
     })
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> createAuthenticationToken(@RequestBody LoginRequest loginRequest) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUserId(), loginRequest.getPassword())
-        );
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUserId(), loginRequest.getPassword())
+            );
+        } catch (RejectedExecutionException e) {
+            // The hashing pool is full: fail fast instead of queueing the login on a request thread
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps a rejection of the dummy hash it computes while looking the user up
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            throw e;
+        }
 
-        final User user = userRepository.findByUserId(loginRequest.getUserId()).orElseThrow();
+        // Already cached by the authentication above
+        final User user = userCache.findByUserId(loginRequest.getUserId()).orElseThrow();
+        userService.upgradePasswordHash(user, loginRequest.getPassword());
         final String token = jwtUtil.generateToken(user);
 
         return ResponseEntity.ok(new LoginResponse(
@@ -107,20 +144,72 @@ public class UserController {
 
 
 
-    @Operation(summary = "Get a list of all users (Admin only)")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users")
+    @Operation(summary = "Get a page of users (Admin only)",
+               description = "Keyset-paginated in id order. The body is the page of users without password hashes; when more "
+                       + "users exist the X-Next-Cursor response header carries the cursor for the next page. "
+                       + "userType (0 admin, 1 customer) and namePrefix (first or last name) are optional filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of users"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserSummary>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         @RequestParam(required = false) Integer userType,
+                                                         @RequestParam(required = false) String namePrefix) {
+        UserPage page;
+        try {
+            page = userService.getUserPage(cursor, size, userType, namePrefix);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
     
     @Operation(summary = "Create a new admin user (Admin only)")
-    @ApiResponse(responseCode = "201", description = "Admin user created successfully")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Admin user created successfully"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is at capacity; retry shortly")
+    })
     @PostMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<User> createAdmin(@RequestBody User user) {
-        return new ResponseEntity<>(userService.createAdminUser(user), HttpStatus.CREATED);
+        try {
+            return new ResponseEntity<>(userService.createAdminUser(user), HttpStatus.CREATED);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Bulk-import customer accounts (Admin only)",
+               description = "Streams a CSV file (text/csv, with a header line naming the columns userId, emailId, password and "
+                       + "optionally firstName, lastName, address, avatar) or NDJSON (application/x-ndjson, one user object per line). "
+                       + "Rows that cannot be imported are listed in the report by line number; the rest are imported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the report for rows that failed"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header, or the upload could not be read"),
+            @ApiResponse(responseCode = "409", description = "Another import is already running")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@RequestHeader("Content-Type") MediaType contentType, InputStream body) {
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf(NDJSON))
+                ? UserImportService.Format.NDJSON : UserImportService.Format.CSV;
+        try {
+            UserImportReport report = userImportService.importUsers(body, format);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Import failed: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (IOException e) {
+            return new ResponseEntity<>("Could not read the upload: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @Operation(summary = "Delete a user by ID (Admin only)")
@@ -132,18 +221,22 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
- @PostMapping("/check-username")
-public ResponseEntity<?> checkUsername(@RequestBody Map<String, String> payload) {
-  String username = payload.get("username");
-
-  System.out.println("Checking username: '" + username + "'");
-  if (username == null || username.trim().isEmpty()) {
-
-      return ResponseEntity.ok().body(Map.of("exists", false));
-  }
-  boolean exists = userRepository.findByUserId(username.trim()).isPresent();  
-  System.out.println("Does username exist?: " + exists);
-  return ResponseEntity.ok().body(Map.of("exists", exists));
-
-}
+    @Operation(summary = "Check whether a username is already taken",
+               description = "Answered from an in-memory filter when the name is certainly free; only possible matches reach the database.")
+    @ApiResponse(responseCode = "200", description = "exists is true if the username is taken")
+    @PostMapping("/check-username")
+    public ResponseEntity<?> checkUsername(@RequestBody Map<String, String> payload) {
+        String username = payload.get("username");
+        if (username == null || username.trim().isEmpty()) {
+            return ResponseEntity.ok().body(Map.of("exists", false));
+        }
+        if (!usernameFilter.mightExist(username)) {
+            return ResponseEntity.ok().body(Map.of("exists", false));
+        }
+        boolean exists = userCache.findByUserId(username.trim()).isPresent();
+        if (!exists) {
+            usernameFilter.recordFalsePositive();
+        }
+        return ResponseEntity.ok().body(Map.of("exists", exists));
+    }
 }
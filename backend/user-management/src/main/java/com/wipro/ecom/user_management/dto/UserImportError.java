@@ -0,0 +1,12 @@
+package com.wipro.ecom.user_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserImportError {
+    private long line;      // line number in the uploaded file, starting at 1
+    private String userId;  // null when the line could not be read
+    private String message;
+}
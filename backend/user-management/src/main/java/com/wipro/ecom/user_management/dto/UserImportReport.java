@@ -0,0 +1,15 @@
+package com.wipro.ecom.user_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private List<UserImportError> errors;
+    private boolean errorsTruncated; // true when more rows failed than are listed in errors
+}
@@ -0,0 +1,15 @@
+package com.wipro.ecom.user_management.dto;
+
+import lombok.Data;
+
+// One user in a bulk import file: a CSV row or an NDJSON line. The password is in plain text.
+@Data
+public class UserImportRow {
+    private String userId;
+    private String emailId;
+    private String password;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String avatar;
+}
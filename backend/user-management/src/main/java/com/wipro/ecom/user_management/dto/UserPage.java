@@ -0,0 +1,12 @@
+package com.wipro.ecom.user_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserPage {
+    private List<UserSummary> items;
+    private String nextCursor; // null when this is the last page
+}
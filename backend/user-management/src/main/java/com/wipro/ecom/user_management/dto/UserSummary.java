@@ -0,0 +1,19 @@
+package com.wipro.ecom.user_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The columns the admin user list shows, read straight from the users table; never the password hash
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummary {
+    private Integer id;
+    private String userId;
+    private String firstName;
+    private String lastName;
+    private String emailId;
+    private int userType;
+    private String avatar;
+}
@@ -5,10 +5,14 @@ import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // The admin list filtered by user type walks this index in id order
+        @Index(name = "idx_users_type_id", columnList = "user_type, id")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id")
+    @SequenceGenerator(name = "users_id", sequenceName = "users_seq", allocationSize = 50)
     private Integer id;
     private String firstName;
     private String lastName;
@@ -1,11 +1,48 @@
 package com.wipro.ecom.user_management.repository;
 
+import com.wipro.ecom.user_management.dto.UserSummary;
 import com.wipro.ecom.user_management.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUserId(String userId);
+
+    // Only the userId column, streamed row by row (Integer.MIN_VALUE fetch size on MySQL) for building
+    // the username filter. Must run in a transaction and the stream must be closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT u.userId FROM User u")
+    Stream<String> streamAllUserIds();
+
+    // Keyset page of the admin user list in id order, continuing strictly after afterId.
+    // namePrefix is a LIKE pattern ending in '%', with '!' as the escape character (a backslash would need
+    // escaping differently per database), matched against first or last name.
+    // The Pageable only carries the page size.
+    @Query("SELECT new com.wipro.ecom.user_management.dto.UserSummary("
+            + "u.id, u.userId, u.firstName, u.lastName, u.emailId, u.userType, u.avatar)"
+            + " FROM User u WHERE u.id > :afterId"
+            + " AND (:userType IS NULL OR u.userType = :userType)"
+            + " AND (:namePrefix IS NULL OR u.firstName LIKE :namePrefix ESCAPE '!' OR u.lastName LIKE :namePrefix ESCAPE '!')"
+            + " ORDER BY u.id")
+    List<UserSummary> findSummaryPage(@Param("afterId") Integer afterId, @Param("userType") Integer userType,
+                                      @Param("namePrefix") String namePrefix, Pageable pageable);
+
+    // Which of the given userIds / emailIds are already taken, one query per import chunk.
+    // Values come back as stored; compare case-insensitively, like the columns' collation.
+    @Query("SELECT u.userId FROM User u WHERE u.userId IN :userIds")
+    List<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+
+    @Query("SELECT u.emailId FROM User u WHERE u.emailId IN :emailIds")
+    List<String> findExistingEmailIds(@Param("emailIds") Collection<String> emailIds);
 }
@@ -0,0 +1,103 @@
+package com.wipro.ecom.user_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.wipro.ecom.user_management.entity.User;
+import com.wipro.ecom.user_management.repository.UserRepository;
+import com.wipro.ecom.user_management.util.CollationKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users, looked up either by id or by userId (the login name).
+ *
+ * Unknown userIds are cached too, for a shorter time, so repeated logins with names that do not
+ * exist stop reaching the database. Anything that changes a user, or creates one whose name may
+ * have been cached as unknown, must call {@link #evict(User)} or {@link #evictUserId(String)}.
+ * Cached users are shared between requests and must not be modified.
+ */
+@Service
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user.cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${user.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${user.cache.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    private Cache<Integer, Optional<User>> byId;
+    private Cache<String, Optional<User>> byUserId;
+
+    @PostConstruct
+    void init() {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expiry())
+                .recordStats()
+                .build();
+        this.byUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserId, "users.byUserId");
+    }
+
+    public Optional<User> findById(Integer id) {
+        return byId.get(id, key -> userRepository.findById(key));
+    }
+
+    public Optional<User> findByUserId(String userId) {
+        return byUserId.get(CollationKey.of(userId), key -> userRepository.findByUserId(userId));
+    }
+
+    public void evict(User user) {
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+        if (user.getUserId() != null) {
+            evictUserId(user.getUserId());
+        }
+    }
+
+    public void evictUserId(String userId) {
+        byUserId.invalidate(CollationKey.of(userId));
+    }
+
+    private Expiry<Object, Optional<User>> expiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Optional<User> user, long currentTime) {
+                return (user.isPresent() ? ttl : negativeTtl).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Optional<User> user, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, user, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Optional<User> user, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -1,7 +1,6 @@
 package com.wipro.ecom.user_management.service;
 
 import com.wipro.ecom.user_management.entity.User;
-import com.wipro.ecom.user_management.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,11 +14,12 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUserId(username)
+        // Served from the cache: this runs on every login and on every JWT-authenticated request
+        User user = userCache.findByUserId(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with userId: " + username));
 
 
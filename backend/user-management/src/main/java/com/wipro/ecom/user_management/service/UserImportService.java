@@ -0,0 +1,432 @@
+package com.wipro.ecom.user_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.user_management.dto.UserImportError;
+import com.wipro.ecom.user_management.dto.UserImportReport;
+import com.wipro.ecom.user_management.dto.UserImportRow;
+import com.wipro.ecom.user_management.entity.User;
+import com.wipro.ecom.user_management.repository.UserRepository;
+import com.wipro.ecom.user_management.util.CollationKey;
+import com.wipro.ecom.user_management.util.CsvLine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Bulk customer import for onboarding a partner's user base in one request instead of one
+ * {@code /user/register} call per user.
+ *
+ * The upload is read one line at a time and handled in chunks, so memory use does not grow with the
+ * file. For each chunk: duplicates within the chunk and names or emails already in the database
+ * (one IN query each) are reported, the remaining passwords are hashed in parallel on a dedicated
+ * fork-join pool, and the users are inserted in one transaction as JDBC batches. Later chunks see the
+ * users committed by earlier ones, so a userId repeated anywhere in the file is imported once.
+ *
+ * Rows that fail are listed in the report with their line number and never stop the import. Only one
+ * import runs at a time.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Set<String> COLUMNS = Set.of("userid", "emailid", "password", "firstname", "lastname", "address", "avatar");
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("userid", "emailid", "password");
+
+    // BCrypt only reads the first 72 bytes of a password and refuses longer ones
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A multiple of jpa.jdbc.batch-size, so every chunk is written as full batches
+    @Value("${user.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${user.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashingPool;
+    private final PasswordEncoder importEncoder;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    /**
+     * Hashing uses its own pool rather than the bounded login pool, which would reject a bulk load.
+     * By default it has one thread per core, so a large import finishes in minutes but competes with
+     * logins while it runs; set user.import.hashing-threads lower to keep cores free for them.
+     * user.import.bcrypt-strength may be set below password.bcrypt.strength to speed an import up: each
+     * imported hash is then upgraded to the full cost on the user's first login.
+     */
+    public UserImportService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${user.import.hashing-threads:0}") int hashingThreads,
+                             @Value("${user.import.bcrypt-strength:${password.bcrypt.strength:10}}") int bcryptStrength) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors());
+        this.importEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        this.importedRows = meterRegistry.counter("user.import.rows", "result", "imported");
+        this.failedRows = meterRegistry.counter("user.import.rows", "result", "failed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Imports every user in {@code body} as a customer. CSV input needs a header line naming its columns
+     * (userId, emailId and password are required; firstName, lastName, address and avatar are optional);
+     * NDJSON input has one JSON object per line with the same field names.
+     *
+     * @throws IllegalArgumentException if the CSV header is missing or invalid
+     * @throws IllegalStateException    if another import is already running
+     */
+    public UserImportReport importUsers(InputStream body, Format format) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A user import is already running");
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            log.info("User import started, hashing passwords on {} threads", hashingPool.getParallelism());
+            Progress progress = new Progress();
+            long lineNumber = 0;
+            Function<String, UserImportRow> parser;
+            if (format == Format.CSV) {
+                parser = csvParser(reader.readLine());
+                lineNumber++;
+            } else {
+                parser = this::parseJson;
+            }
+
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.rows++;
+                UserImportRow row;
+                try {
+                    row = parser.apply(line);
+                } catch (IllegalArgumentException e) {
+                    progress.fail(lineNumber, null, "Unreadable row: " + e.getMessage());
+                    continue;
+                }
+                String problem = validate(row);
+                if (problem != null) {
+                    progress.fail(lineNumber, row.getUserId(), problem);
+                    continue;
+                }
+                chunk.add(new PendingRow(lineNumber, row));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+            log.info("User import finished: {} imported, {} failed of {} rows",
+                    progress.imported, progress.failed, progress.rows);
+            return progress.toReport();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void importChunk(List<PendingRow> chunk, Progress progress) {
+        // Duplicates inside the chunk: the first occurrence wins
+        Set<String> chunkUserIds = new HashSet<>();
+        Set<String> chunkEmails = new HashSet<>();
+        List<PendingRow> unique = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (!chunkUserIds.add(normalize(pending.row.getUserId()))) {
+                progress.fail(pending.line, pending.row.getUserId(), "Duplicate userId earlier in the file");
+            } else if (!chunkEmails.add(normalize(pending.row.getEmailId()))) {
+                progress.fail(pending.line, pending.row.getUserId(), "Duplicate emailId earlier in the file");
+            } else {
+                unique.add(pending);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenUserIds = normalizeAll(userRepository.findExistingUserIds(
+                unique.stream().map(pending -> pending.row.getUserId()).toList()));
+        Set<String> takenEmails = normalizeAll(userRepository.findExistingEmailIds(
+                unique.stream().map(pending -> pending.row.getEmailId()).toList()));
+        List<PendingRow> fresh = new ArrayList<>(unique.size());
+        for (PendingRow pending : unique) {
+            if (takenUserIds.contains(normalize(pending.row.getUserId()))) {
+                progress.fail(pending.line, pending.row.getUserId(), "userId already exists");
+            } else if (takenEmails.contains(normalize(pending.row.getEmailId()))) {
+                progress.fail(pending.line, pending.row.getUserId(), "emailId already exists");
+            } else {
+                fresh.add(pending);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // BCrypt dominates the cost of an import; a parallel stream submitted to the pool runs on its workers
+        List<Hashed> hashed = hashingPool.submit(() -> fresh.parallelStream().map(this::hash).toList()).join();
+        List<PendingRow> rows = new ArrayList<>(hashed.size());
+        List<User> users = new ArrayList<>(hashed.size());
+        for (Hashed result : hashed) {
+            if (result.user == null) {
+                progress.fail(result.pending.line, result.pending.row.getUserId(), "Could not hash password: " + result.error);
+            } else {
+                rows.add(result.pending);
+                users.add(result.user);
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        List<User> stored;
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(users));
+            stored = users;
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            // Lost a race with a registration, or a value the database refuses: find the bad rows one by one
+            stored = persistOneByOne(rows, users, progress);
+        }
+        for (User user : stored) {
+            usernameFilter.added(user.getUserId());
+            userCache.evictUserId(user.getUserId());
+        }
+        progress.imported += stored.size();
+        importedRows.increment(stored.size());
+    }
+
+    private List<User> persistOneByOne(List<PendingRow> rows, List<User> users, Progress progress) {
+        List<User> stored = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            // The failed batch already assigned an id; persist only accepts new entities
+            user.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> persistAll(List.of(user)));
+                stored.add(user);
+            } catch (RuntimeException e) {
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                progress.fail(rows.get(i).line, user.getUserId(),
+                        "Rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return stored;
+    }
+
+    /*
+     * The EntityManager is not behind a repository proxy, so Spring does not translate what it throws:
+     * a flush fails with Hibernate's ConstraintViolationException (possibly wrapped in a
+     * PersistenceException), while a violation only found at commit arrives translated.
+     */
+    private static boolean isConstraintViolation(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return true;
+        }
+        for (Throwable cause = e; cause instanceof PersistenceException; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void persistAll(List<User> users) {
+        for (User user : users) {
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        // Nothing here is read again; keep the persistence context from growing across the transaction
+        entityManager.clear();
+    }
+
+    // A row whose password cannot be hashed fails on its own instead of aborting the import
+    private Hashed hash(PendingRow pending) {
+        try {
+            return new Hashed(pending, toUser(pending.row), null);
+        } catch (RuntimeException e) {
+            return new Hashed(pending, null, e.getMessage());
+        }
+    }
+
+    private User toUser(UserImportRow row) {
+        User user = new User();
+        user.setUserId(row.getUserId());
+        user.setEmailId(row.getEmailId());
+        user.setPassword(importEncoder.encode(row.getPassword()));
+        user.setFirstName(row.getFirstName());
+        user.setLastName(row.getLastName());
+        user.setAddress(row.getAddress());
+        user.setAvatar(row.getAvatar());
+        user.setUserType(1);
+        return user;
+    }
+
+    private static String validate(UserImportRow row) {
+        if (isBlank(row.getUserId())) {
+            return "userId is required";
+        }
+        if (isBlank(row.getEmailId())) {
+            return "emailId is required";
+        }
+        if (isBlank(row.getPassword())) {
+            return "password is required";
+        }
+        if (row.getPassword().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            return "password is longer than " + MAX_PASSWORD_BYTES + " bytes";
+        }
+        row.setUserId(row.getUserId().trim());
+        row.setEmailId(row.getEmailId().trim());
+        return null;
+    }
+
+    private Function<String, UserImportRow> csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV upload is empty; expected a header line");
+        }
+        List<String> columns = CsvLine.parse(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        for (String column : columns) {
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column);
+            }
+        }
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new IllegalArgumentException("The CSV header must name the columns " + REQUIRED_COLUMNS);
+        }
+        return line -> {
+            List<String> fields = CsvLine.parse(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("expected " + columns.size() + " fields but found " + fields.size());
+            }
+            UserImportRow row = new UserImportRow();
+            for (int i = 0; i < columns.size(); i++) {
+                String value = fields.get(i).isEmpty() ? null : fields.get(i);
+                switch (columns.get(i)) {
+                    case "userid" -> row.setUserId(value);
+                    case "emailid" -> row.setEmailId(value);
+                    case "password" -> row.setPassword(value);
+                    case "firstname" -> row.setFirstName(value);
+                    case "lastname" -> row.setLastName(value);
+                    case "address" -> row.setAddress(value);
+                    case "avatar" -> row.setAvatar(value);
+                    default -> throw new IllegalStateException("Unmapped column " + columns.get(i));
+                }
+            }
+            return row;
+        };
+    }
+
+    private UserImportRow parseJson(String line) {
+        try {
+            UserImportRow row = objectMapper.readValue(line, UserImportRow.class);
+            if (row == null) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+            return row;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // userId and emailId comparisons in MySQL follow the columns' case- and accent-insensitive collation
+    private static String normalize(String value) {
+        return CollationKey.of(value);
+    }
+
+    private static Set<String> normalizeAll(List<String> values) {
+        Set<String> normalized = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            normalized.add(normalize(value));
+        }
+        return normalized;
+    }
+
+    private record PendingRow(long line, UserImportRow row) {
+    }
+
+    // Either user or error is set
+    private record Hashed(PendingRow pending, User user, String error) {
+    }
+
+    private class Progress {
+        private long rows;
+        private long imported;
+        private long failed;
+        private final List<UserImportError> errors = new ArrayList<>();
+
+        void fail(long line, String userId, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportError(line, userId, message));
+            }
+        }
+
+        UserImportReport toReport() {
+            return new UserImportReport(rows, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
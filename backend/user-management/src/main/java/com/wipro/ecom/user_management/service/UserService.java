@@ -1,26 +1,70 @@
 package com.wipro.ecom.user_management.service;
 
+import com.wipro.ecom.user_management.dto.UserPage;
+import com.wipro.ecom.user_management.dto.UserSummary;
 import com.wipro.ecom.user_management.entity.User;
 import com.wipro.ecom.user_management.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class UserService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private UserCache userCache;
+
     public User registerNewUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setUserType(1);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        usernameFilter.added(saved.getUserId());
+        // The name may be cached as unknown from an earlier failed login or lookup
+        userCache.evictUserId(saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * Re-hashes the password at the configured BCrypt strength after a successful login, when the
+     * stored hash is weaker. Skipped when the hashing pool is full: the login has already succeeded,
+     * and the upgrade is tried again on a later one.
+     */
+    public void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        String upgraded;
+        try {
+            upgraded = passwordEncoder.encode(rawPassword);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        userRepository.findById(user.getId())
+                // Only replace the hash the login was checked against
+                .filter(stored -> stored.getPassword().equals(user.getPassword()))
+                .ifPresent(stored -> {
+                    stored.setPassword(upgraded);
+                    userRepository.save(stored);
+                    userCache.evict(stored);
+                });
     }
 
     public User updateUserProfile(Integer userId, User userDetails) {
@@ -32,7 +76,9 @@ public class UserService {
         existingUser.setAddress(userDetails.getAddress());
         existingUser.setEmailId(userDetails.getEmailId());
         
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        userCache.evict(saved);
+        return saved;
     }
     
 
@@ -40,22 +86,61 @@ public class UserService {
     public User createAdminUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setUserType(0); 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        usernameFilter.added(saved.getUserId());
+        userCache.evictUserId(saved.getUserId());
+        return saved;
     }
 
  
     public Optional<User> getUserById(Integer userId) {
-        return userRepository.findById(userId);
+        return userCache.findById(userId);
     }
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /**
+     * One keyset page of the admin user list, in id order. {@code cursor} is the value returned as
+     * {@code nextCursor} by the previous page (null for the first page); {@code userType} and
+     * {@code namePrefix} (matched against first or last name) are optional filters and must stay
+     * the same across pages.
+     */
+    public UserPage getUserPage(String cursor, Integer size, Integer userType, String namePrefix) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Integer afterId = decodeCursor(cursor);
+        String pattern = namePrefix == null || namePrefix.isBlank() ? null : likePrefix(namePrefix.trim());
+
+        // One extra row tells us whether another page exists without a count query
+        List<UserSummary> rows = userRepository.findSummaryPage(afterId, userType, pattern, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new UserPage(rows, null);
+        }
+        List<UserSummary> page = List.copyOf(rows.subList(0, pageSize));
+        return new UserPage(page, encodeCursor(page.get(pageSize - 1).getId()));
+    }
+
+    private static String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    private static String encodeCursor(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Integer decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
     }
 
  
     public void deleteUser(Integer userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("User not found with id: " + userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        userRepository.delete(user);
+        userCache.evict(user);
+        usernameFilter.deleted();
     }
 }
@@ -0,0 +1,183 @@
+package com.wipro.ecom.user_management.service;
+
+import com.wipro.ecom.user_management.repository.UserRepository;
+import com.wipro.ecom.user_management.util.BloomFilter;
+import com.wipro.ecom.user_management.util.CollationKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership filter over every userId, so the registration form's "is this username taken"
+ * check only reaches the database when the name might exist.
+ *
+ * The filter is built from the users table at startup and rebuilt in the background, while the old one
+ * keeps answering, once it holds more names than it was sized for or enough users have been deleted
+ * (a Bloom filter cannot forget names). Until the first build finishes every name counts as
+ * "might exist", which just means the database is asked.
+ */
+@Service
+public class UsernameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${username.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Headroom over the current user count, so the filter does not need rebuilding right away
+    @Value("${username.filter.growth-factor:2.0}")
+    private double growthFactor;
+
+    @Value("${username.filter.min-capacity:10000}")
+    private long minCapacity;
+
+    // Rebuild once this share of the names in the filter belong to deleted users
+    @Value("${username.filter.stale-ratio:0.1}")
+    private double staleRatio;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private final Counter definiteNegatives;
+    private final Counter falsePositives;
+    private final Counter rebuildFailures;
+
+    private volatile BloomFilter filter;
+    // Names registered while a rebuild is reading the table, added to the new filter before it goes live
+    private volatile Queue<String> addedDuringRebuild;
+
+    public UsernameFilter(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.definiteNegatives = meterRegistry.counter("username.filter.checks", "result", "definite_negative");
+        this.falsePositives = meterRegistry.counter("username.filter.checks", "result", "false_positive");
+        this.rebuildFailures = meterRegistry.counter("username.filter.rebuild.failures");
+        meterRegistry.gauge("username.filter.false.positive.rate", this,
+                self -> self.filter == null ? 1.0 : self.filter.estimatedFalsePositiveRate());
+        meterRegistry.gauge("username.filter.insertions", this,
+                self -> self.filter == null ? 0 : self.filter.getInsertions());
+        meterRegistry.gauge("username.filter.capacity", this,
+                self -> self.filter == null ? 0 : self.filter.getExpectedInsertions());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * False only when the user id is certainly not taken. True means it may be taken and the caller
+     * must check the database.
+     */
+    public boolean mightExist(String userId) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(CollationKey.of(userId))) {
+            return true;
+        }
+        definiteNegatives.increment();
+        return false;
+    }
+
+    // Called when the filter said "might exist" but the database had no such user
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void added(String userId) {
+        String name = CollationKey.of(userId);
+        Queue<String> pending = addedDuringRebuild;
+        if (pending != null) {
+            pending.add(name);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(name);
+            if (current.getInsertions() > current.getExpectedInsertions()) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    public void deleted() {
+        BloomFilter current = filter;
+        if (current != null && deletedSinceBuild.incrementAndGet() > current.getInsertions() * staleRatio) {
+            scheduleRebuild();
+        }
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 1.0 : current.estimatedFalsePositiveRate();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    // The previous filter (or none, which sends every check to the database) stays in use
+                    rebuildFailures.increment();
+                    log.warn("Could not rebuild the username filter", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    private void rebuild() {
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        addedDuringRebuild = pending;
+        try {
+            long users = userRepository.count();
+            BloomFilter next = BloomFilter.create(Math.max(minCapacity, (long) (users * growthFactor)), falsePositiveRate);
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> userIds = userRepository.streamAllUserIds()) {
+                    userIds.forEach(userId -> next.put(CollationKey.of(userId)));
+                }
+            });
+            for (String name : pending) {
+                next.put(name);
+            }
+            deletedSinceBuild.set(0);
+            filter = next;
+        } finally {
+            addedDuringRebuild = null;
+        }
+        // A name registered between draining the queue and the swap went only into the old filter
+        for (String name : pending) {
+            filter.put(name);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.wipro.ecom.user_management.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds a userId or emailId the way MySQL's default utf8mb4_0900_ai_ci collation compares them:
+ * ignoring case, accents and surrounding spaces, so "José" and " jose" give the same key. Folding
+ * is applied generously (compatibility decomposition, ß as ss): two values the database treats as
+ * equal always get the same key, and the rare pair it tells apart but this does not only costs an
+ * extra database check.
+ */
+public final class CollationKey {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private CollationKey() {
+    }
+
+    public static String of(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("ß", "ss");
+    }
+}
@@ -0,0 +1,116 @@
+package com.wipro.ecom.user_management.service;
+
+import com.wipro.ecom.user_management.entity.User;
+import com.wipro.ecom.user_management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserCache cache = new UserCache();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+		ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cache, "maxSize", 100L);
+		ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(cache, "negativeTtl", Duration.ofMillis(20));
+		cache.init();
+	}
+
+	@Test
+	void readsEachUserFromTheDatabaseOnce() {
+		User alice = user(1, "alice");
+		when(userRepository.findById(1)).thenReturn(Optional.of(alice));
+
+		assertThat(cache.findById(1)).containsSame(alice);
+		assertThat(cache.findById(1)).containsSame(alice);
+		verify(userRepository, times(1)).findById(1);
+	}
+
+	@Test
+	void looksUpUserIdsIgnoringCaseAndSurroundingSpaces() {
+		User alice = user(1, "alice");
+		when(userRepository.findByUserId("Alice")).thenReturn(Optional.of(alice));
+
+		assertThat(cache.findByUserId("Alice")).containsSame(alice);
+		assertThat(cache.findByUserId(" ALICE ")).containsSame(alice);
+		assertThat(cache.findByUserId("alice")).containsSame(alice);
+		verify(userRepository, times(1)).findByUserId("Alice");
+	}
+
+	@Test
+	void registeringAnAccentedNameEvictsItsUnaccentedMiss() {
+		User jose = user(3, "José");
+		when(userRepository.findByUserId("jose")).thenReturn(Optional.empty());
+		assertThat(cache.findByUserId("jose")).isEmpty();
+
+		// The database matches "jose" against "José", so the cached miss must go with the registration
+		when(userRepository.findByUserId("jose")).thenReturn(Optional.of(jose));
+		cache.evictUserId("José");
+
+		assertThat(cache.findByUserId("jose")).containsSame(jose);
+	}
+
+	@Test
+	void cachesUnknownUserIdsForTheShorterTtl() throws InterruptedException {
+		when(userRepository.findByUserId("ghost")).thenReturn(Optional.empty());
+
+		assertThat(cache.findByUserId("ghost")).isEmpty();
+		assertThat(cache.findByUserId("ghost")).isEmpty();
+		verify(userRepository, times(1)).findByUserId("ghost");
+
+		Thread.sleep(50);
+		assertThat(cache.findByUserId("ghost")).isEmpty();
+		verify(userRepository, times(2)).findByUserId("ghost");
+	}
+
+	@Test
+	void evictingAUserDropsBothLookups() {
+		User alice = user(1, "alice");
+		when(userRepository.findById(1)).thenReturn(Optional.of(alice));
+		when(userRepository.findByUserId("alice")).thenReturn(Optional.of(alice));
+		cache.findById(1);
+		cache.findByUserId("alice");
+
+		cache.evict(alice);
+		cache.findById(1);
+		cache.findByUserId("alice");
+
+		verify(userRepository, times(2)).findById(1);
+		verify(userRepository, times(2)).findByUserId("alice");
+	}
+
+	@Test
+	void evictingAUserIdForgetsThatItWasUnknown() {
+		User bob = user(2, "bob");
+		when(userRepository.findByUserId("bob")).thenReturn(Optional.empty());
+		assertThat(cache.findByUserId("bob")).isEmpty();
+
+		// Registration creates the user and evicts the cached miss
+		when(userRepository.findByUserId("bob")).thenReturn(Optional.of(bob));
+		cache.evictUserId("BOB");
+
+		assertThat(cache.findByUserId("bob")).containsSame(bob);
+	}
+
+	private static User user(int id, String userId) {
+		User user = new User();
+		user.setId(id);
+		user.setUserId(userId);
+		return user;
+	}
+}
@@ -0,0 +1,159 @@
+package com.wipro.ecom.user_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wipro.ecom.user_management.dto.UserImportError;
+import com.wipro.ecom.user_management.dto.UserImportReport;
+import com.wipro.ecom.user_management.entity.User;
+import com.wipro.ecom.user_management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTests {
+
+	private static final String CSV = """
+			userId,emailId,password
+			alice,alice@example.com,secret
+			bob,bob@example.com,secret
+			""";
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UsernameFilter usernameFilter = mock(UsernameFilter.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final List<User> persisted = new ArrayList<>();
+	private UserImportService service;
+
+	@BeforeEach
+	void setUp() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		service = new UserImportService(transactionManager, new SimpleMeterRegistry(), 1, 4);
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "usernameFilter", usernameFilter);
+		ReflectionTestUtils.setField(service, "userCache", mock(UserCache.class));
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "entityManager", entityManager);
+		ReflectionTestUtils.setField(service, "chunkSize", 1000);
+		ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+		doAnswer(invocation -> persisted.add(invocation.getArgument(0))).when(entityManager).persist(any());
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void reportsUserIdsAlreadyInTheDatabase() throws IOException {
+		when(userRepository.findExistingUserIds(anyList())).thenReturn(List.of("Alice"));
+
+		UserImportReport report = importCsv();
+
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getErrors()).singleElement()
+				.extracting(UserImportError::getLine, UserImportError::getUserId, UserImportError::getMessage)
+				.containsExactly(2L, "alice", "userId already exists");
+		assertThat(persisted).extracting(User::getUserId).containsExactly("bob");
+	}
+
+	@Test
+	void reportsUserIdTakenBetweenTheCheckAndTheInsert() throws IOException {
+		// A registration claims "alice" after the IN query, so only the unique key catches it
+		doAnswer(invocation -> {
+			boolean clash = persisted.stream().anyMatch(user -> user.getUserId().equals("alice"));
+			persisted.clear();
+			if (clash) {
+				throw new ConstraintViolationException("could not execute batch",
+						new SQLIntegrityConstraintViolationException("Duplicate entry 'alice' for key 'users.user_id'"),
+						"users.user_id");
+			}
+			return null;
+		}).when(entityManager).flush();
+
+		UserImportReport report = importCsv();
+
+		assertThat(report.getRows()).isEqualTo(2);
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getFailed()).isEqualTo(1);
+		assertThat(report.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getLine()).isEqualTo(2);
+			assertThat(error.getUserId()).isEqualTo("alice");
+			assertThat(error.getMessage()).contains("Duplicate entry 'alice'");
+		});
+		verify(usernameFilter).added("bob");
+		verify(usernameFilter, never()).added("alice");
+	}
+
+	@Test
+	void reportsPasswordsTooLongForBcryptAndImportsTheRest() throws IOException {
+		// 37 two-byte characters: under 72 characters but over BCrypt's 72 bytes
+		String csv = "userId,emailId,password\n"
+				+ "alice,alice@example.com," + "ñ".repeat(37) + "\n"
+				+ "bob,bob@example.com,secret\n";
+
+		UserImportReport report = importCsv(csv);
+
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getErrors()).singleElement()
+				.extracting(UserImportError::getLine, UserImportError::getUserId, UserImportError::getMessage)
+				.containsExactly(2L, "alice", "password is longer than 72 bytes");
+		assertThat(persisted).extracting(User::getUserId).containsExactly("bob");
+	}
+
+	@Test
+	void passwordThatCannotBeHashedFailsOnlyItsRow() throws IOException {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				if ("secret".contentEquals(rawPassword)) {
+					throw new IllegalArgumentException("cannot hash");
+				}
+				return super.encode(rawPassword);
+			}
+		};
+		ReflectionTestUtils.setField(service, "importEncoder", encoder);
+		String csv = "userId,emailId,password\n"
+				+ "alice,alice@example.com,secret\n"
+				+ "bob,bob@example.com,other\n";
+
+		UserImportReport report = importCsv(csv);
+
+		assertThat(report.getImported()).isEqualTo(1);
+		assertThat(report.getErrors()).singleElement()
+				.extracting(UserImportError::getLine, UserImportError::getMessage)
+				.containsExactly(2L, "Could not hash password: cannot hash");
+		assertThat(persisted).extracting(User::getUserId).containsExactly("bob");
+	}
+
+	private UserImportReport importCsv() throws IOException {
+		return importCsv(CSV);
+	}
+
+	private UserImportReport importCsv(String csv) throws IOException {
+		return service.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+				UserImportService.Format.CSV);
+	}
+}
@@ -0,0 +1,81 @@
+package com.wipro.ecom.user_management.service;
+
+import com.wipro.ecom.user_management.entity.User;
+import com.wipro.ecom.user_management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+	private final UserCache userCache = mock(UserCache.class);
+	private final UserService service = new UserService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "passwordEncoder", passwordEncoder);
+		ReflectionTestUtils.setField(service, "userCache", userCache);
+	}
+
+	@Test
+	void rehashesAWeakerStoredHash() {
+		User cached = user("$2a$04$weak");
+		User stored = user("$2a$04$weak");
+		when(passwordEncoder.upgradeEncoding("$2a$04$weak")).thenReturn(true);
+		when(passwordEncoder.encode("secret")).thenReturn("$2a$12$strong");
+		when(userRepository.findById(1)).thenReturn(Optional.of(stored));
+
+		service.upgradePasswordHash(cached, "secret");
+
+		assertThat(stored.getPassword()).isEqualTo("$2a$12$strong");
+		verify(userRepository).save(stored);
+		verify(userCache).evict(stored);
+	}
+
+	@Test
+	void skipsTheUpgradeWhenHashingIsAtCapacity() {
+		User cached = user("$2a$04$weak");
+		when(passwordEncoder.upgradeEncoding("$2a$04$weak")).thenReturn(true);
+		when(passwordEncoder.encode("secret")).thenThrow(new RejectedExecutionException("Password hashing is at capacity"));
+
+		assertThatCode(() -> service.upgradePasswordHash(cached, "secret")).doesNotThrowAnyException();
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void leavesAHashChangedSinceTheLoginAlone() {
+		User cached = user("$2a$04$weak");
+		User stored = user("$2a$12$changed");
+		when(passwordEncoder.upgradeEncoding("$2a$04$weak")).thenReturn(true);
+		when(passwordEncoder.encode("secret")).thenReturn("$2a$12$strong");
+		when(userRepository.findById(1)).thenReturn(Optional.of(stored));
+
+		service.upgradePasswordHash(cached, "secret");
+
+		assertThat(stored.getPassword()).isEqualTo("$2a$12$changed");
+		verify(userRepository, never()).save(any());
+	}
+
+	private static User user(String password) {
+		User user = new User();
+		user.setId(1);
+		user.setUserId("alice");
+		user.setPassword(password);
+		return user;
+	}
+}
@@ -0,0 +1,120 @@
+package com.wipro.ecom.user_management.service;
+
+import com.wipro.ecom.user_management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameFilterTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private UsernameFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		filter = new UsernameFilter(transactionManager, meterRegistry);
+		ReflectionTestUtils.setField(filter, "userRepository", userRepository);
+		// Low enough that a name the test never added does not show up as a false positive
+		ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.000001);
+		ReflectionTestUtils.setField(filter, "growthFactor", 2.0);
+		ReflectionTestUtils.setField(filter, "minCapacity", 1000L);
+		ReflectionTestUtils.setField(filter, "staleRatio", 0.1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		filter.shutdown();
+	}
+
+	@Test
+	void everyNameMightExistBeforeTheFirstBuild() {
+		assertThat(filter.mightExist("anyone")).isTrue();
+	}
+
+	@Test
+	void buildsFromTheUsersTableIgnoringCase() throws InterruptedException {
+		when(userRepository.count()).thenReturn(2L);
+		when(userRepository.streamAllUserIds()).thenAnswer(invocation -> Stream.of("Alice", "bob"));
+
+		filter.buildOnStartup();
+		await(this::built);
+
+		assertThat(filter.mightExist("alice")).isTrue();
+		assertThat(filter.mightExist(" BOB ")).isTrue();
+		assertThat(filter.mightExist("carol")).isFalse();
+	}
+
+	@Test
+	void answersForNamesTheDatabaseWouldMatchIgnoringAccents() throws InterruptedException {
+		when(userRepository.count()).thenReturn(1L);
+		when(userRepository.streamAllUserIds()).thenAnswer(invocation -> Stream.of("José"));
+
+		filter.buildOnStartup();
+		await(this::built);
+
+		assertThat(filter.mightExist("jose")).isTrue();
+		assertThat(filter.mightExist("JOSÉ")).isTrue();
+	}
+
+	@Test
+	void keepsNamesRegisteredWhileARebuildReadsTheTable() throws InterruptedException {
+		when(userRepository.count()).thenReturn(1L);
+		// "bob" registers while the rebuild is still streaming the table, so the read never sees him
+		when(userRepository.streamAllUserIds()).thenAnswer(invocation ->
+				Stream.of("alice").peek(name -> filter.added("bob")));
+
+		filter.buildOnStartup();
+		await(this::built);
+
+		assertThat(filter.mightExist("alice")).isTrue();
+		assertThat(filter.mightExist("bob")).isTrue();
+	}
+
+	@Test
+	void failedRebuildIsCountedAndKeepsThePreviousFilter() throws InterruptedException {
+		when(userRepository.count()).thenReturn(2L);
+		when(userRepository.streamAllUserIds()).thenAnswer(invocation -> Stream.of("alice", "bob"));
+		filter.buildOnStartup();
+		await(this::built);
+
+		when(userRepository.count()).thenThrow(new IllegalStateException("database down"));
+		// One deletion out of two names is past the stale ratio and schedules a rebuild
+		filter.deleted();
+		await(() -> rebuildFailures() == 1.0);
+
+		assertThat(filter.mightExist("alice")).isTrue();
+		assertThat(filter.mightExist("carol")).isFalse();
+	}
+
+	private boolean built() {
+		return filter.getEstimatedFalsePositiveRate() < 1.0;
+	}
+
+	private double rebuildFailures() {
+		return meterRegistry.counter("username.filter.rebuild.failures").count();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
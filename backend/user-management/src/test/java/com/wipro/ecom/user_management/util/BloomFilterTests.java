@@ -0,0 +1,37 @@
+package com.wipro.ecom.user_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+	private static final int USERS = 100_000;
+
+	@Test
+	void neverReportsAnAddedValueAsAbsent() {
+		BloomFilter filter = BloomFilter.create(USERS, 0.01);
+		for (int i = 0; i < USERS; i++) {
+			filter.put("user" + i);
+		}
+		for (int i = 0; i < USERS; i++) {
+			assertThat(filter.mightContain("user" + i)).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		BloomFilter filter = BloomFilter.create(USERS, 0.01);
+		for (int i = 0; i < USERS; i++) {
+			filter.put("user" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < USERS; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat((double) falsePositives / USERS).isLessThan(0.02);
+		assertThat(filter.estimatedFalsePositiveRate()).isBetween(0.005, 0.02);
+	}
+}
@@ -0,0 +1,31 @@
+package com.wipro.ecom.user_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollationKeyTests {
+
+	@Test
+	void ignoresCaseAndSurroundingSpaces() {
+		assertThat(CollationKey.of(" Alice ")).isEqualTo(CollationKey.of("alice"));
+	}
+
+	@Test
+	void ignoresAccentsWhetherComposedOrNot() {
+		assertThat(CollationKey.of("José")).isEqualTo("jose");
+		assertThat(CollationKey.of("Jose\u0301")).isEqualTo("jose");
+		assertThat(CollationKey.of("ÅNGSTRÖM")).isEqualTo("angstrom");
+	}
+
+	@Test
+	void foldsSharpSAndLigatures() {
+		assertThat(CollationKey.of("Straße")).isEqualTo("strasse");
+		assertThat(CollationKey.of("ﬁona")).isEqualTo("fiona");
+	}
+
+	@Test
+	void keepsDifferentNamesApart() {
+		assertThat(CollationKey.of("jose")).isNotEqualTo(CollationKey.of("josé1"));
+	}
+}
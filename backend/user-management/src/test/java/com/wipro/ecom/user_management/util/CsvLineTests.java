@@ -0,0 +1,31 @@
+package com.wipro.ecom.user_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvLineTests {
+
+	@Test
+	void splitsPlainFields() {
+		assertThat(CsvLine.parse("alice,alice@example.com,secret")).containsExactly("alice", "alice@example.com", "secret");
+	}
+
+	@Test
+	void keepsEmptyFields() {
+		assertThat(CsvLine.parse("alice,,")).containsExactly("alice", "", "");
+	}
+
+	@Test
+	void unquotesFieldsWithCommasAndQuotes() {
+		assertThat(CsvLine.parse("bob,\"12 Main St, Apt \"\"B\"\"\",x"))
+				.containsExactly("bob", "12 Main St, Apt \"B\"", "x");
+	}
+
+	@Test
+	void rejectsUnterminatedQuote() {
+		assertThatThrownBy(() -> CsvLine.parse("carol,\"open"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,100 @@
+package com.wipro.ecom.user_management.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledPasswordEncoderTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BlockingEncoder delegate = new BlockingEncoder();
+
+	@AfterEach
+	void release() {
+		delegate.release.countDown();
+	}
+
+	@Test
+	void delegatesToTheWrappedEncoder() {
+		delegate.release.countDown();
+		try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(delegate, 1, 1, 5000, meterRegistry)) {
+			assertThat(encoder.encode("secret")).isEqualTo("{hashed}secret");
+			assertThat(encoder.matches("secret", "{hashed}secret")).isTrue();
+			assertThat(encoder.matches("wrong", "{hashed}secret")).isFalse();
+		}
+	}
+
+	@Test
+	void rejectsStraightAwayWhenTheQueueIsFull() throws Exception {
+		try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(delegate, 1, 1, 5000, meterRegistry)) {
+			CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+			assertThat(delegate.started.await(5, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+			awaitQueueDepth(1);
+
+			assertThatThrownBy(() -> encoder.encode("third"))
+					.isInstanceOf(RejectedExecutionException.class)
+					.hasMessageContaining("at capacity");
+			assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1.0);
+
+			delegate.release.countDown();
+			assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}first");
+			assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}second");
+		}
+	}
+
+	@Test
+	void rejectsWhenHashingTakesLongerThanTheTimeout() {
+		try (PooledPasswordEncoder encoder = new PooledPasswordEncoder(delegate, 1, 1, 50, meterRegistry)) {
+			assertThatThrownBy(() -> encoder.matches("secret", "{hashed}secret"))
+					.isInstanceOf(RejectedExecutionException.class)
+					.hasMessageContaining("timed out");
+			assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1.0);
+		}
+	}
+
+	private void awaitQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("password.hash.queue.depth").gauge().value() < depth) {
+			assertThat(System.nanoTime()).as("queue depth reached within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	// Holds every hash until released, so the test controls how long the worker stays busy
+	private static class BlockingEncoder implements PasswordEncoder {
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			await();
+			return "{hashed}" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+
+		private void await() {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}